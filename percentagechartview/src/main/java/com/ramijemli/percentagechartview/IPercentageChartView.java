@@ -26,6 +26,10 @@ public interface IPercentageChartView {
 
     void postInvalidateOnAnimation();
 
+    boolean postDelayed(Runnable action, long delayMillis);
+
+    boolean removeCallbacks(Runnable action);
+
     boolean isInEditMode();
 
     int getWidth();
@@ -19,11 +19,12 @@ package com.ramijemli.percentagechartview;
 
 import android.animation.TimeInterpolator;
 import android.content.Context;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Typeface;
 import android.os.Build;
-import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.AttributeSet;
 import android.view.View;
@@ -39,68 +40,91 @@ import com.ramijemli.percentagechartview.annotation.ChartMode;
 import com.ramijemli.percentagechartview.annotation.GradientTypes;
 import com.ramijemli.percentagechartview.annotation.ProgressBarStyle;
 import com.ramijemli.percentagechartview.annotation.ProgressOrientation;
+import com.ramijemli.percentagechartview.annotation.ProgressSmoothing;
+import com.ramijemli.percentagechartview.annotation.TextPrecision;
 import com.ramijemli.percentagechartview.annotation.TextStyle;
 import com.ramijemli.percentagechartview.callback.AdaptiveColorProvider;
 import com.ramijemli.percentagechartview.callback.OnProgressChangeListener;
+import com.ramijemli.percentagechartview.callback.ProgressTextAppender;
 import com.ramijemli.percentagechartview.callback.ProgressTextFormatter;
 import com.ramijemli.percentagechartview.renderer.BaseModeRenderer;
-import com.ramijemli.percentagechartview.renderer.FillModeRenderer;
+import com.ramijemli.percentagechartview.renderer.ChartStyle;
+import com.ramijemli.percentagechartview.renderer.CompiledStyleCache;
 import com.ramijemli.percentagechartview.renderer.OffsetEnabledMode;
 import com.ramijemli.percentagechartview.renderer.OrientationBasedMode;
-import com.ramijemli.percentagechartview.renderer.PieModeRenderer;
+import com.ramijemli.percentagechartview.renderer.RendererFactory;
 import com.ramijemli.percentagechartview.renderer.RingModeRenderer;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.GRADIENT_LINEAR;
 import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.GRADIENT_SWEEP;
-import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_FILL;
 import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_PIE;
 import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_RING;
 import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.ORIENTATION_CLOCKWISE;
 import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.ORIENTATION_COUNTERCLOCKWISE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.SMOOTHING_NONE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.SMOOTHING_ONE_EURO;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.TEXT_PRECISION_INTEGER;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.TEXT_PRECISION_TWO_DECIMALS;
 
 
 @SuppressWarnings({"unused", "UnusedReturnValue"})
 public class PercentageChartView extends View implements IPercentageChartView {
 
-    private static final String STATE_SUPER_INSTANCE = "PercentageChartView.STATE_SUPER_INSTANCE";
-    private static final String STATE_MODE = "PercentageChartView.STATE_MODE";
-    private static final String STATE_ORIENTATION = "PercentageChartView.STATE_ORIENTATION";
-    private static final String STATE_START_ANGLE = "PercentageChartView.STATE_START_ANGLE";
-    private static final String STATE_DURATION = "PercentageChartView.STATE_DURATION";
+    private BaseModeRenderer renderer;
 
-    private static final String STATE_PROGRESS = "PercentageChartView.STATE_PROGRESS";
-    private static final String STATE_PG_COLOR = "PercentageChartView.STATE_PG_COLOR";
+    @ChartMode
+    private int mode;
 
-    private static final String STATE_DRAW_BG = "PercentageChartView.STATE_DRAW_BG";
-    private static final String STATE_BG_COLOR = "PercentageChartView.STATE_BG_COLOR";
-    private static final String STATE_BG_OFFSET = "PercentageChartView.STATE_BG_OFFSET";
+    @Nullable
+    private OnProgressChangeListener onProgressChangeListener;
 
-    private static final String STATE_TXT_COLOR = "PercentageChartView.STATE_TXT_COLOR";
-    private static final String STATE_TXT_SIZE = "PercentageChartView.STATE_TXT_SIZE";
-    private static final String STATE_TXT_SHA_COLOR = "PercentageChartView.STATE_TXT_SHD_COLOR";
-    private static final String STATE_TXT_SHA_RADIUS = "PercentageChartView.STATE_TXT_SHA_RADIUS";
-    private static final String STATE_TXT_SHA_DIST_X = "PercentageChartView.STATE_TXT_SHA_DIST_X";
-    private static final String STATE_TXT_SHA_DIST_Y = "PercentageChartView.STATE_TXT_SHA_DIST_Y";
+    @Nullable
+    private ProgressAggregator progressAggregator;
+    private boolean progressAggregatorAnimate;
 
-    private static final String STATE_PG_BAR_THICKNESS = "PercentageChartView.STATE_PG_BAR_THICKNESS";
-    private static final String STATE_PG_BAR_STYLE = "PercentageChartView.STATE_PG_BAR_STYLE";
+    // SET BY THE FIRST CHANGE OF A FRAME, CLEARED ONCE THAT FRAME'S INVALIDATION RUNS
+    private volatile boolean invalidatePending;
 
-    private static final String STATE_DRAW_BG_BAR = "PercentageChartView.STATE_DRAW_BG_BAR";
-    private static final String STATE_BG_BAR_COLOR = "PercentageChartView.STATE_BG_BAR_COLOR";
-    private static final String STATE_BG_BAR_THICKNESS = "PercentageChartView.STATE_BG_BAR_THICKNESS";
+    private final Runnable invalidateOnFrame = new Runnable() {
+        @Override
+        public void run() {
+            invalidatePending = false;
+            invalidate();
+        }
+    };
 
-    private static final String STATE_GRADIENT_TYPE = "PercentageChartView.STATE_GRADIENT_TYPE";
-    private static final String STATE_GRADIENT_ANGLE = "PercentageChartView.STATE_GRADIENT_ANGLE";
-    private static final String STATE_GRADIENT_COLORS = "PercentageChartView.STATE_GRADIENT_COLORS";
-    private static final String STATE_GRADIENT_POSITIONS = "PercentageChartView.STATE_GRADIENT_POSITIONS";
+    // PUBLISHED PROGRESS IS FIXED-POINT, IN MILLIONTHS OF A PERCENT
+    private static final long PROGRESS_SCALE = 1000000L;
+    private static final long MAX_FIXED_PROGRESS = 100 * PROGRESS_SCALE;
 
-    private BaseModeRenderer renderer;
+    // LATEST PUBLISHED PROGRESS, FIXED-POINT VALUE IN THE LOW WORD AND THE ANIMATE FLAG ABOVE IT
+    private static final long NO_PENDING_PROGRESS = -1L;
+    private static final long PENDING_PROGRESS_ANIMATE = 1L << 32;
+    private static final long PENDING_PROGRESS_MASK = PENDING_PROGRESS_ANIMATE - 1;
+    private final AtomicLong pendingProgress = new AtomicLong(NO_PENDING_PROGRESS);
 
-    @ChartMode
-    private int mode;
+    // WORKER THREADS NEVER POST TO THE VIEW ITSELF, BEFORE API 24 A DETACHED VIEW'S RUN QUEUE IS THREAD LOCAL
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
 
-    @Nullable
-    private OnProgressChangeListener onProgressChangeListener;
+    private final Runnable schedulePendingProgress = new Runnable() {
+        @Override
+        public void run() {
+            postOnNextFrame(consumePendingProgress);
+        }
+    };
+
+    private final Runnable consumePendingProgress = new Runnable() {
+        @Override
+        public void run() {
+            long pending = pendingProgress.getAndSet(NO_PENDING_PROGRESS);
+            if (pending == NO_PENDING_PROGRESS) return;
+            // CONVERTED BACK TO A PERCENTAGE ONLY ONCE PER FRAME, ON THE MAIN THREAD
+            float progress = (float) ((double) (pending & PENDING_PROGRESS_MASK) / PROGRESS_SCALE);
+            renderer.submitProgress(progress, (pending & PENDING_PROGRESS_ANIMATE) != 0);
+        }
+    };
 
     public PercentageChartView(Context context) {
         super(context);
@@ -123,39 +147,28 @@ public class PercentageChartView extends View implements IPercentageChartView {
         init(context, attrs);
     }
 
+    /**
+     * Creates a chart drawn with the given shared style, without parsing any attribute.
+     * Use {@link #getStyle()} on a configured chart to clone its look.
+     *
+     * @param context the view context
+     * @param style   the style to draw the chart with
+     */
+    public PercentageChartView(Context context, @NonNull ChartStyle style) {
+        super(context);
+        mode = style.getMode();
+        renderer = RendererFactory.create(this, style);
+    }
+
     private void init(@NonNull Context context, @Nullable AttributeSet attributeSet) {
         if (attributeSet != null) {
-            TypedArray attrs = context.getTheme().obtainStyledAttributes(
-                    attributeSet,
-                    R.styleable.PercentageChartView,
-                    0, 0
-            );
-
-            try {
-                //CHART MODE (DEFAULT PIE MODE)
-                mode = attrs.getInt(R.styleable.PercentageChartView_pcv_mode, MODE_PIE);
-                switch (mode) {
-                    case MODE_RING:
-                        renderer = new RingModeRenderer(this, attrs);
-                        break;
-                    case MODE_FILL:
-                        renderer = new FillModeRenderer(this, attrs);
-                        break;
-
-                    default:
-                    case MODE_PIE:
-                        renderer = new PieModeRenderer(this, attrs);
-                        break;
-                }
-
-            } finally {
-                attrs.recycle();
-            }
+            // CHARTS INFLATED WITH THE SAME ATTRIBUTES AND THEME SHARE A STYLE COMPILED ONCE
+            renderer = CompiledStyleCache.obtainRenderer(this, context, attributeSet);
+            mode = renderer.getMode();
         } else {
             mode = MODE_PIE;
-            renderer = new PieModeRenderer(this);
+            renderer = RendererFactory.create(mode, this, null);
         }
-        setSaveEnabled(true);
     }
 
     //##############################################################################################   BEHAVIOR
@@ -169,126 +182,161 @@ public class PercentageChartView extends View implements IPercentageChartView {
         setMeasuredDimension(w, h);
     }
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        renderer.rebind(this);
+
+        if (progressAggregator != null) {
+            progressAggregator.attach(this, progressAggregatorAnimate);
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        renderer.destroy();
-        renderer = null;
+        // AN INVALIDATION STILL WAITING FOR ITS FRAME IS DROPPED, THE NEXT CHANGE SCHEDULES AGAIN
+        removeCallbacks(invalidateOnFrame);
+        invalidatePending = false;
+
+        // KEEP THE RENDERER AND ITS PAINTS, A RECYCLED VIEW IS ATTACHED AGAIN ON ITS NEXT BIND
+        renderer.reset();
 
-        if (onProgressChangeListener != null) {
-            onProgressChangeListener = null;
+        // A LONG LIVED AGGREGATOR MUST NOT KEEP A DETACHED CHART, AND ITS CONTEXT, ALIVE
+        if (progressAggregator != null) {
+            progressAggregator.detach(this);
         }
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        renderer.flushPendingWork();
         renderer.draw(canvas);
     }
 
     @Override
-    protected Parcelable onSaveInstanceState() {
-        Bundle bundle = new Bundle();
-        bundle.putParcelable(STATE_SUPER_INSTANCE, super.onSaveInstanceState());
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // A HIDDEN CHART SKIPS ITS INVALIDATIONS, NOTHING MAY STAY PENDING ACROSS THE CHANGE
+        invalidatePending = false;
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        invalidatePending = false;
+    }
+
+    // SETTERS CALLED IN A ROW, OR WITHIN AN EDIT, SHARE A SINGLE INVALIDATION
+    private void scheduleInvalidate() {
+        if (renderer != null && renderer.isEditing()) return;
+        if (invalidatePending) return;
+        invalidatePending = true;
+        postOnAnimation(invalidateOnFrame);
+    }
 
-        bundle.putInt(STATE_MODE, mode);
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.mode = mode;
+        state.flags = (renderer.isDrawBackgroundEnabled() ? SavedState.FLAG_DRAW_BG : 0);
         if (renderer instanceof OrientationBasedMode) {
-            bundle.putInt(STATE_ORIENTATION, ((OrientationBasedMode) renderer).getOrientation());
+            state.orientation = ((OrientationBasedMode) renderer).getOrientation();
         }
-        bundle.putFloat(STATE_START_ANGLE, renderer.getStartAngle());
-        bundle.putInt(STATE_DURATION, renderer.getAnimationDuration());
+        state.startAngle = renderer.getStartAngle();
+        state.duration = renderer.getAnimationDuration();
 
-        bundle.putFloat(STATE_PROGRESS, renderer.getProgress());
-        bundle.putInt(STATE_PG_COLOR, renderer.getProgressColor());
+        state.progress = renderer.getProgress();
+        state.progressColor = renderer.getProgressColor();
 
-        bundle.putBoolean(STATE_DRAW_BG, renderer.isDrawBackgroundEnabled());
-        bundle.putInt(STATE_BG_COLOR, renderer.getBackgroundColor());
+        state.backgroundColor = renderer.getBackgroundColor();
         if (renderer instanceof OffsetEnabledMode) {
-            bundle.putInt(STATE_BG_OFFSET, ((OffsetEnabledMode) renderer).getBackgroundOffset());
+            state.backgroundOffset = ((OffsetEnabledMode) renderer).getBackgroundOffset();
         }
 
-        bundle.putInt(STATE_TXT_COLOR, renderer.getTextColor());
-        bundle.putFloat(STATE_TXT_SIZE, renderer.getTextSize());
-        bundle.putInt(STATE_TXT_SHA_COLOR, renderer.getTextShadowColor());
-        bundle.putFloat(STATE_TXT_SHA_RADIUS, renderer.getTextShadowRadius());
-        bundle.putFloat(STATE_TXT_SHA_DIST_X, renderer.getTextShadowDistX());
-        bundle.putFloat(STATE_TXT_SHA_DIST_Y, renderer.getTextShadowDistY());
+        state.textColor = renderer.getTextColor();
+        state.textSize = renderer.getTextSize();
+        state.textShadowColor = renderer.getTextShadowColor();
+        state.textShadowRadius = renderer.getTextShadowRadius();
+        state.textShadowDistX = renderer.getTextShadowDistX();
+        state.textShadowDistY = renderer.getTextShadowDistY();
 
         if (renderer instanceof RingModeRenderer) {
-            bundle.putFloat(STATE_PG_BAR_THICKNESS, ((RingModeRenderer) renderer).getProgressBarThickness());
-            bundle.putInt(STATE_PG_BAR_STYLE, ((RingModeRenderer) renderer).getProgressBarStyle());
-            bundle.putBoolean(STATE_DRAW_BG_BAR, ((RingModeRenderer) renderer).isDrawBackgroundBarEnabled());
-            bundle.putInt(STATE_BG_BAR_COLOR, ((RingModeRenderer) renderer).getBackgroundBarColor());
-            bundle.putFloat(STATE_BG_BAR_THICKNESS, ((RingModeRenderer) renderer).getBackgroundBarThickness());
+            RingModeRenderer ring = (RingModeRenderer) renderer;
+            state.progressBarThickness = ring.getProgressBarThickness();
+            state.progressBarStyle = ring.getProgressBarStyle();
+            state.flags |= ring.isDrawBackgroundBarEnabled() ? SavedState.FLAG_DRAW_BG_BAR : 0;
+            state.backgroundBarColor = ring.getBackgroundBarColor();
+            state.backgroundBarThickness = ring.getBackgroundBarThickness();
         }
 
-        if (renderer.getGradientType() != -1) {
-            bundle.putInt(STATE_GRADIENT_TYPE, renderer.getGradientType());
-            bundle.putFloat(STATE_GRADIENT_ANGLE, renderer.getGradientAngle());
-            bundle.putIntArray(STATE_GRADIENT_COLORS, renderer.getGradientColors());
-            bundle.putFloatArray(STATE_GRADIENT_POSITIONS, renderer.getGradientDistributions());
+        state.gradientType = renderer.getGradientType();
+        if (state.gradientType != -1) {
+            state.gradientAngle = renderer.getGradientAngle();
+            state.gradientColors = renderer.getGradientColors();
+            state.gradientPositions = renderer.getGradientDistributions();
         }
-
-        return bundle;
+        return state;
     }
 
     @Override
     protected void onRestoreInstanceState(Parcelable state) {
-        if (state instanceof Bundle) {
-            Bundle bundle = (Bundle) state;
-            mode = bundle.getInt(STATE_MODE);
-            switch (mode) {
-                case MODE_RING:
-                    renderer = new RingModeRenderer(this);
-                    ((RingModeRenderer) renderer).setProgressBarThickness(bundle.getFloat(STATE_PG_BAR_THICKNESS));
-                    ((RingModeRenderer) renderer).setProgressBarStyle(bundle.getInt(STATE_PG_BAR_STYLE));
-                    ((RingModeRenderer) renderer).setDrawBackgroundBarEnabled(bundle.getBoolean(STATE_DRAW_BG_BAR));
-                    ((RingModeRenderer) renderer).setBackgroundBarColor(bundle.getInt(STATE_BG_BAR_COLOR));
-                    ((RingModeRenderer) renderer).setBackgroundBarThickness(bundle.getFloat(STATE_BG_BAR_THICKNESS));
-                    break;
-                case MODE_FILL:
-                    renderer = new FillModeRenderer(this);
-                    break;
-
-                default:
-                case MODE_PIE:
-                    renderer = new PieModeRenderer(this);
-                    break;
-            }
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
 
-            if (renderer instanceof OrientationBasedMode) {
-                ((OrientationBasedMode) renderer).setOrientation(bundle.getInt(STATE_ORIENTATION));
-            }
-            renderer.setStartAngle(bundle.getFloat(STATE_START_ANGLE));
-            renderer.setAnimationDuration(bundle.getInt(STATE_DURATION));
+        SavedState saved = (SavedState) state;
+        super.onRestoreInstanceState(saved.getSuperState());
 
-            renderer.setProgress(bundle.getFloat(STATE_PROGRESS), false);
-            renderer.setProgressColor(bundle.getInt(STATE_PG_COLOR));
+        // THE RENDERER BUILT BY INIT IS KEPT, ONLY A MODE CHANGED AT RUNTIME NEEDS ANOTHER ONE
+        if (saved.mode != mode) {
+            renderer.destroy();
+            mode = saved.mode;
+            renderer = RendererFactory.create(mode, this, null);
+        }
 
-            renderer.setDrawBackgroundEnabled(bundle.getBoolean(STATE_DRAW_BG));
-            renderer.setBackgroundColor(bundle.getInt(STATE_BG_COLOR));
-            if (renderer instanceof OffsetEnabledMode) {
-                ((OffsetEnabledMode) renderer).setBackgroundOffset(bundle.getInt(STATE_BG_OFFSET));
-            }
+        renderer.beginEdit();
+        if (renderer instanceof RingModeRenderer) {
+            RingModeRenderer ring = (RingModeRenderer) renderer;
+            ring.setProgressBarThickness(saved.progressBarThickness);
+            ring.setProgressBarStyle(saved.progressBarStyle);
+            ring.setDrawBackgroundBarEnabled((saved.flags & SavedState.FLAG_DRAW_BG_BAR) != 0);
+            ring.setBackgroundBarColor(saved.backgroundBarColor);
+            ring.setBackgroundBarThickness(saved.backgroundBarThickness);
+        }
 
-            renderer.setTextColor(bundle.getInt(STATE_TXT_COLOR));
-            renderer.setTextSize(bundle.getFloat(STATE_TXT_SIZE));
-            renderer.setTextShadow(bundle.getInt(STATE_TXT_SHA_COLOR),
-                    bundle.getFloat(STATE_TXT_SHA_RADIUS),
-                    bundle.getFloat(STATE_TXT_SHA_DIST_X),
-                    bundle.getFloat(STATE_TXT_SHA_DIST_Y));
-
-            if (bundle.getInt(STATE_GRADIENT_TYPE, -1) != -1) {
-                renderer.setGradientColorsInternal(bundle.getInt(STATE_GRADIENT_TYPE),
-                        bundle.getIntArray(STATE_GRADIENT_COLORS),
-                        bundle.getFloatArray(STATE_GRADIENT_POSITIONS),
-                        bundle.getFloat(STATE_GRADIENT_ANGLE));
-            }
-            super.onRestoreInstanceState(bundle.getParcelable(STATE_SUPER_INSTANCE));
-            return;
+        if (renderer instanceof OrientationBasedMode) {
+            ((OrientationBasedMode) renderer).setOrientation(saved.orientation);
+        }
+        renderer.setStartAngle(saved.startAngle);
+        renderer.setAnimationDuration(saved.duration);
+
+        renderer.setProgress(saved.progress, false);
+        renderer.setProgressColor(saved.progressColor);
+
+        renderer.setDrawBackgroundEnabled((saved.flags & SavedState.FLAG_DRAW_BG) != 0);
+        renderer.setBackgroundColor(saved.backgroundColor);
+        if (renderer instanceof OffsetEnabledMode) {
+            ((OffsetEnabledMode) renderer).setBackgroundOffset(saved.backgroundOffset);
         }
 
-        super.onRestoreInstanceState(state);
+        renderer.setTextColor(saved.textColor);
+        renderer.setTextSize(saved.textSize);
+        renderer.setTextShadow(saved.textShadowColor,
+                saved.textShadowRadius,
+                saved.textShadowDistX,
+                saved.textShadowDistY);
+
+        if (saved.gradientType != -1) {
+            renderer.setGradientColors(saved.gradientType,
+                    saved.gradientColors,
+                    saved.gradientPositions,
+                    saved.gradientAngle);
+        }
+        renderer.endEdit();
+        scheduleInvalidate();
     }
 
     //RENDERER CALLBACKS
@@ -315,6 +363,28 @@ public class PercentageChartView extends View implements IPercentageChartView {
         return mode;
     }
 
+    /**
+     * Gets an immutable snapshot of the chart's current look, which can be shared by any number of
+     * charts. Progress and running animations are not part of the style.
+     *
+     * @return the current chart style
+     */
+    @NonNull
+    public ChartStyle getStyle() {
+        return renderer.captureStyle();
+    }
+
+    /**
+     * Sets the whole look of the chart at once, keeping its current progress. The chart mode changes
+     * if the style was built for another one.
+     *
+     * @param style the style to draw the chart with
+     */
+    public void setStyle(@NonNull ChartStyle style) {
+        style(style);
+        scheduleInvalidate();
+    }
+
     /**
      * Gets the current drawing orientation.
      *
@@ -334,7 +404,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setOrientation(@ProgressOrientation int orientation) {
         orientation(orientation);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -354,7 +424,18 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setStartAngle(@FloatRange(from = 0f, to = 360f) float startAngle) {
         startAngle(startAngle);
-        postInvalidate();
+        scheduleInvalidate();
+    }
+
+    /**
+     * Sets the current circular drawing's start angle in degrees. Default start angle is0.
+     *
+     * @param startAngle A positive start angle value that is less or equal to 360.
+     * @param animate True to animate from the current value, false to apply it at once.
+     */
+    public void setStartAngle(@FloatRange(from = 0f, to = 360f) float startAngle, boolean animate) {
+        startAngle(startAngle, animate);
+        scheduleInvalidate();
     }
 
     /**
@@ -373,7 +454,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setDrawBackgroundEnabled(boolean enabled) {
         drawBackgroundEnabled(enabled);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -393,7 +474,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setBackgroundColor(@ColorInt int color) {
         backgroundColor(color);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -418,7 +499,97 @@ public class PercentageChartView extends View implements IPercentageChartView {
             throw new IllegalArgumentException("Progress value must be positive and less or equal to 100.");
         }
 
-        renderer.setProgress(progress, animate);
+        // A VALUE SET FROM THE MAIN THREAD SUPERSEDES ANY PUBLISHED EARLIER
+        pendingProgress.set(NO_PENDING_PROGRESS);
+        renderer.submitProgress(progress, animate);
+    }
+
+    /**
+     * Publishes a new progress value from any thread. Only the latest published value is kept, and it
+     * is applied once on the next frame, so values published faster than the display refreshes are
+     * conflated instead of queued.
+     *
+     * @param progress New progress float value to set.
+     * @param animate  Animation boolean value to set whether to animate progress change or not.
+     * @throws IllegalArgumentException if the given progress is negative, or, less or equal to 100.
+     */
+    public void publishProgress(@FloatRange(from = 0f, to = 100f) float progress, boolean animate) {
+        if (progress < 0 || progress > 100) {
+            throw new IllegalArgumentException("Progress value must be positive and less or equal to 100.");
+        }
+
+        publishFixedProgress(Math.round((double) progress * PROGRESS_SCALE), animate);
+    }
+
+    /**
+     * Sets a new progress from a byte count, or any other long count, from any thread. The ratio is
+     * computed in fixed-point so that totals of several gigabytes keep their precision, and a current
+     * count beyond the total is drawn as complete. Like {@link #publishProgress(float, boolean)}, only
+     * the latest value is applied, once on the next frame.
+     *
+     * @param current the current count.
+     * @param total   the count at which progress is complete.
+     * @throws IllegalArgumentException if the given total is not positive, or, the given current count is negative.
+     */
+    public void setProgress(long current, long total) {
+        setProgress(current, total, false);
+    }
+
+    /**
+     * Sets a new progress from a byte count, or any other long count, from any thread. Passing true in
+     * animate will cause an animated progress update.
+     *
+     * @param current the current count.
+     * @param total   the count at which progress is complete.
+     * @param animate Animation boolean value to set whether to animate progress change or not.
+     * @throws IllegalArgumentException if the given total is not positive, or, the given current count is negative.
+     * @see #setProgress(long, long)
+     */
+    public void setProgress(long current, long total, boolean animate) {
+        if (total <= 0) {
+            throw new IllegalArgumentException("Progress total must be a positive value.");
+        }
+        if (current < 0) {
+            throw new IllegalArgumentException("Progress count must be a positive value.");
+        }
+
+        publishFixedProgress(toFixedProgress(current, total), animate);
+    }
+
+    private static long toFixedProgress(long current, long total) {
+        if (current >= total) return MAX_FIXED_PROGRESS;
+
+        // HALVE BOTH COUNTS UNTIL THE PRODUCT CANNOT OVERFLOW, THE RATIO BARELY MOVES
+        while (total > Long.MAX_VALUE / MAX_FIXED_PROGRESS) {
+            current >>>= 1;
+            total >>>= 1;
+        }
+        return current * MAX_FIXED_PROGRESS / total;
+    }
+
+    private void publishFixedProgress(long fixedProgress, boolean animate) {
+        long pending = fixedProgress | (animate ? PENDING_PROGRESS_ANIMATE : 0);
+        // ONLY THE PRODUCER THAT FILLS AN EMPTY SLOT SCHEDULES THE CONSUMER
+        if (pendingProgress.getAndSet(pending) == NO_PENDING_PROGRESS) {
+            runOnMainThread(schedulePendingProgress);
+        }
+    }
+
+    static void runOnMainThread(@NonNull Runnable action) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            action.run();
+        } else {
+            MAIN_HANDLER.post(action);
+        }
+    }
+
+    // MAIN THREAD ONLY, A DETACHED CHART HAS NO FRAME TO WAIT FOR AND TAKES THE VALUE RIGHT AWAY
+    void postOnNextFrame(@NonNull Runnable action) {
+        if (getWindowToken() != null) {
+            postOnAnimation(action);
+        } else {
+            action.run();
+        }
     }
 
     /**
@@ -438,7 +609,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setProgressColor(@ColorInt int color) {
         progressColor(color);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
 
@@ -469,7 +640,27 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setGradientColors(@GradientTypes int type, int[] colors, float[] positions, @FloatRange(from = 0f, to = 360f) float angle) {
         gradientColors(type, colors, positions, angle);
-        postInvalidate();
+        scheduleInvalidate();
+    }
+
+    /**
+     * Gets the direction of the linear progress gradient in degrees.
+     *
+     * @return the gradient angle
+     */
+    public float getGradientAngle() {
+        return renderer.getGradientAngle();
+    }
+
+    /**
+     * Sets the direction of the linear progress gradient in degrees. Has no effect on other gradient types.
+     *
+     * @param angle   A positive angle value that is less or equal to 360.
+     * @param animate True to animate from the current value, false to apply it at once.
+     */
+    public void setGradientAngle(@FloatRange(from = 0f, to = 360f) float angle, boolean animate) {
+        gradientAngle(angle, animate);
+        scheduleInvalidate();
     }
 
     /**
@@ -527,7 +718,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setTextColor(@ColorInt int color) {
         textColor(color);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -546,7 +737,18 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setTextSize(float size) {
         textSize(size);
-        postInvalidate();
+        scheduleInvalidate();
+    }
+
+    /**
+     * Sets the text size.
+     *
+     * @param size the text size
+     * @param animate True to animate from the current value, false to apply it at once.
+     */
+    public void setTextSize(float size, boolean animate) {
+        textSize(size, animate);
+        scheduleInvalidate();
     }
 
     /**
@@ -566,7 +768,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
     @SuppressWarnings("ConstantConditions")
     public void setTypeface(@NonNull Typeface typeface) {
         typeface(typeface);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -586,7 +788,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setTextStyle(@TextStyle int style) {
         textStyle(style);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -636,7 +838,165 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setTextShadow(@ColorInt int shadowColor, @FloatRange(from = 0) float shadowRadius, @FloatRange(from = 0) float shadowDistX, @FloatRange(from = 0) float shadowDistY) {
         textShadow(shadowColor, shadowRadius, shadowDistX, shadowDistY);
-        postInvalidate();
+        scheduleInvalidate();
+    }
+
+    /**
+     * Gets whether the text is drawn from cached glyph metrics instead of a text layout.
+     *
+     * @return whether glyph text rendering has been enabled
+     */
+    public boolean isGlyphTextEnabled() {
+        return renderer.isGlyphTextEnabled();
+    }
+
+    /**
+     * Sets whether the text should be drawn from glyph metrics measured once per typeface and text size.
+     * Only applies to text made of digits, '%', '.' and '-', other formatted text keeps using a text layout.
+     *
+     * @param enabled True if glyph text rendering should be used, false otherwise.
+     */
+    public void setGlyphTextEnabled(boolean enabled) {
+        glyphTextEnabled(enabled);
+        scheduleInvalidate();
+    }
+
+    /**
+     * Gets the number of decimals the progress is rounded down to before being formatted as text.
+     *
+     * @return the text precision
+     */
+    @TextPrecision
+    public int getTextPrecision() {
+        return renderer.getTextPrecision();
+    }
+
+    /**
+     * Sets the number of decimals the progress is rounded down to before being formatted as text.
+     * The text is only formatted again when the rounded value changes.
+     *
+     * @param precision the text precision.
+     */
+    public void setTextPrecision(@TextPrecision int precision) {
+        textPrecision(precision);
+        scheduleInvalidate();
+    }
+
+    /**
+     * Gets the minimum sweep change, in degrees, needed to redraw the progress while animating.
+     *
+     * @return the minimum sweep delta
+     */
+    public float getMinSweepDelta() {
+        return renderer.getMinSweepDelta();
+    }
+
+    /**
+     * Sets the minimum sweep change, in degrees, needed to redraw the progress while animating.
+     * The last frame of an animation is always drawn at the target progress.
+     *
+     * @param delta non-negative sweep delta in degrees.
+     */
+    public void setMinSweepDelta(@FloatRange(from = 0) float delta) {
+        minSweepDelta(delta);
+    }
+
+    /**
+     * Gets whether the chart runs in static mode.
+     *
+     * @return true if static mode is enabled, false otherwise.
+     */
+    public boolean isStaticModeEnabled() {
+        return renderer.isStaticModeEnabled();
+    }
+
+    /**
+     * Sets whether the chart runs in static mode. A static chart releases its animation state once
+     * it has been idle for a while, and allocates it again on the next animated update.
+     *
+     * @param enabled true to enable static mode, false otherwise.
+     */
+    public void setStaticModeEnabled(boolean enabled) {
+        staticModeEnabled(enabled);
+    }
+
+    /**
+     * Gets the filter applied to incoming progress values.
+     *
+     * @return the progress smoothing, one of the ProgressSmoothing constants.
+     */
+    @ProgressSmoothing
+    public int getProgressSmoothing() {
+        return renderer.getProgressSmoothing();
+    }
+
+    /**
+     * Gets the cutoff frequency, in Hz, of the progress smoothing filter.
+     *
+     * @return the smoothing cutoff frequency.
+     */
+    public float getSmoothingCutoff() {
+        return renderer.getSmoothingCutoff();
+    }
+
+    /**
+     * Gets how much the One Euro filter raises its cutoff frequency as progress speeds up.
+     *
+     * @return the smoothing beta.
+     */
+    public float getSmoothingBeta() {
+        return renderer.getSmoothingBeta();
+    }
+
+    /**
+     * Sets the filter applied to incoming progress values, keeping the current cutoff and beta.
+     *
+     * @param smoothing the progress smoothing.
+     * @see #setProgressSmoothing(int, float, float)
+     */
+    public void setProgressSmoothing(@ProgressSmoothing int smoothing) {
+        progressSmoothing(smoothing, renderer.getSmoothingCutoff(), renderer.getSmoothingBeta());
+    }
+
+    /**
+     * Sets the filter applied to incoming progress values, meant for noisy sources updating faster
+     * than the display refreshes. Once smoothing is enabled, a new animated progress only moves the
+     * filter's target, and the filter is evaluated once per frame on the latest target instead of every
+     * update canceling the running animation. Progress set without animation still jumps right away.
+     * <br>
+     * SMOOTHING_EMA is an exponential moving average with a fixed cutoff. SMOOTHING_ONE_EURO raises
+     * the cutoff by beta times the progress speed, in percent per second, which cuts jitter when
+     * progress is steady and lag when it moves fast.
+     *
+     * @param smoothing the progress smoothing.
+     * @param cutoff    the cutoff frequency in Hz, lower values smooth more.
+     * @param beta      the speed coefficient of the One Euro filter.
+     * @throws IllegalArgumentException if the given smoothing is not a valid ProgressSmoothing constant, or, cutoff is not positive, or, beta is negative.
+     */
+    public void setProgressSmoothing(@ProgressSmoothing int smoothing, float cutoff, float beta) {
+        progressSmoothing(smoothing, cutoff, beta);
+    }
+
+    /**
+     * Gets whether animated progress updates are extrapolated.
+     *
+     * @return true if progress extrapolation is enabled, false otherwise.
+     */
+    public boolean isProgressExtrapolationEnabled() {
+        return renderer.isProgressExtrapolationEnabled();
+    }
+
+    /**
+     * Sets whether animated progress updates are extrapolated. Each animated update is then treated
+     * as a sample: the drawn progress keeps moving at the rate estimated from the recent samples until
+     * the next one arrives, without going further than where that next sample is expected, and without
+     * going backwards while samples keep rising. {@link #getProgress()}, the text and the progress
+     * listener keep reporting the last sample.
+     *
+     * @param enabled true to enable progress extrapolation, false otherwise.
+     */
+    public void setProgressExtrapolationEnabled(boolean enabled) {
+        progressExtrapolationEnabled(enabled);
     }
 
     /**
@@ -656,7 +1016,18 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setBackgroundOffset(@IntRange(from = 0) int offset) {
         backgroundOffset(offset);
-        postInvalidate();
+        scheduleInvalidate();
+    }
+
+    /**
+     * Sets the offset of the circular background. Works only if chart mode is set to pie.
+     *
+     * @param offset A positive offset value.
+     * @param animate True to animate from the current value, false to apply it at once.
+     */
+    public void setBackgroundOffset(@IntRange(from = 0) int offset, boolean animate) {
+        backgroundOffset(offset, animate);
+        scheduleInvalidate();
     }
 
     /**
@@ -676,7 +1047,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setDrawBackgroundBarEnabled(boolean enabled) {
         drawBackgroundBarEnabled(enabled);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -696,7 +1067,7 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setBackgroundBarColor(@ColorInt int color) {
         backgroundBarColor(color);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     /**
@@ -716,7 +1087,18 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setBackgroundBarThickness(@FloatRange(from = 0) float thickness) {
         backgroundBarThickness(thickness);
-        postInvalidate();
+        scheduleInvalidate();
+    }
+
+    /**
+     * Sets the background bar thickness in pixels. Works only if chart mode is set to ring.
+     *
+     * @param thickness non-negative thickness value in pixels.
+     * @param animate True to animate from the current value, false to apply it at once.
+     */
+    public void setBackgroundBarThickness(@FloatRange(from = 0) float thickness, boolean animate) {
+        backgroundBarThickness(thickness, animate);
+        scheduleInvalidate();
     }
 
     /**
@@ -736,7 +1118,18 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setProgressBarThickness(@FloatRange(from = 0) float thickness) {
         progressBarThickness(thickness);
-        postInvalidate();
+        scheduleInvalidate();
+    }
+
+    /**
+     * Sets the progress bar thickness in pixels. Works only if chart mode is set to ring.
+     *
+     * @param thickness non-negative thickness value in pixels.
+     * @param animate True to animate from the current value, false to apply it at once.
+     */
+    public void setProgressBarThickness(@FloatRange(from = 0) float thickness, boolean animate) {
+        progressBarThickness(thickness, animate);
+        scheduleInvalidate();
     }
 
     /**
@@ -756,11 +1149,37 @@ public class PercentageChartView extends View implements IPercentageChartView {
      */
     public void setProgressBarStyle(@ProgressBarStyle int style) {
         progressBarStyle(style);
-        postInvalidate();
+        scheduleInvalidate();
     }
 
     //############################################################################################## UPDATE PIPELINE AS A FLUENT API
 
+    /**
+     * Sets the whole look of the chart at once, keeping its current progress. The chart mode changes
+     * if the style was built for another one.
+     *
+     * @param style the style to draw the chart with
+     * @throws IllegalArgumentException if the given style is null.
+     */
+    public PercentageChartView style(@NonNull ChartStyle style) {
+        if (style == null) {
+            throw new IllegalArgumentException("Chart style cannot be null.");
+        }
+
+        if (style.getMode() == mode) {
+            renderer.applyStyle(style);
+            return this;
+        }
+
+        float progress = renderer.getProgress();
+        renderer.destroy();
+        mode = style.getMode();
+        renderer = RendererFactory.create(this, style);
+        renderer.setProgress(progress, false);
+        renderer.measure(getWidth(), getHeight(), getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom());
+        return this;
+    }
+
     /**
      * Sets the circular drawing direction. Default orientation is ORIENTATION_CLOCKWISE.
      *
@@ -787,10 +1206,21 @@ public class PercentageChartView extends View implements IPercentageChartView {
      * @throws IllegalArgumentException if the given start angle is not positive, or, less or equal to 360.
      */
     public PercentageChartView startAngle(@FloatRange(from = 0f, to = 360f) float startAngle) {
+        return startAngle(startAngle, false);
+    }
+
+    /**
+     * Sets the current circular drawing's start angle in degrees. Default start angle is0.
+     *
+     * @param startAngle A positive start angle value that is less or equal to 360.
+     * @param animate True to animate from the current value, false to apply it at once.
+     * @throws IllegalArgumentException if the given start angle is not positive, or, less or equal to 360.
+     */
+    public PercentageChartView startAngle(@FloatRange(from = 0f, to = 360f) float startAngle, boolean animate) {
         if (startAngle < 0 || startAngle > 360) {
             throw new IllegalArgumentException("Start angle value must be positive and less or equal to 360.");
         }
-        this.renderer.setStartAngle(startAngle);
+        this.renderer.setStartAngle(startAngle, animate);
         return this;
     }
 
@@ -850,6 +1280,21 @@ public class PercentageChartView extends View implements IPercentageChartView {
         return this;
     }
 
+    /**
+     * Sets the direction of the linear progress gradient in degrees. Has no effect on other gradient types.
+     *
+     * @param angle   A positive angle value that is less or equal to 360.
+     * @param animate True to animate from the current value, false to apply it at once.
+     * @throws IllegalArgumentException if the given angle is not positive, or, less or equal to 360.
+     */
+    public PercentageChartView gradientAngle(@FloatRange(from = 0f, to = 360f) float angle, boolean animate) {
+        if (angle < 0 || angle > 360) {
+            throw new IllegalArgumentException("Gradient angle value must be positive and less or equal to 360.");
+        }
+        renderer.setGradientAngle(angle, animate);
+        return this;
+    }
+
     /**
      * Sets the duration of the progress change's animation.
      *
@@ -897,10 +1342,21 @@ public class PercentageChartView extends View implements IPercentageChartView {
      * @throws IllegalArgumentException if the given text size is zero or a negative value.
      */
     public PercentageChartView textSize(float size) {
+        return textSize(size, false);
+    }
+
+    /**
+     * Sets the text size.
+     *
+     * @param size the text size
+     * @param animate True to animate from the current value, false to apply it at once.
+     * @throws IllegalArgumentException if the given text size is zero or a negative value.
+     */
+    public PercentageChartView textSize(float size, boolean animate) {
         if (size <= 0) {
             throw new IllegalArgumentException("Text size must be a nonzero positive value.");
         }
-        renderer.setTextSize(size);
+        renderer.setTextSize(size, animate);
         return this;
     }
 
@@ -946,6 +1402,90 @@ public class PercentageChartView extends View implements IPercentageChartView {
         return this;
     }
 
+    /**
+     * Sets whether the text should be drawn from glyph metrics measured once per typeface and text size.
+     * Only applies to text made of digits, '%', '.' and '-', other formatted text keeps using a text layout.
+     *
+     * @param enabled True if glyph text rendering should be used, false otherwise.
+     */
+    public PercentageChartView glyphTextEnabled(boolean enabled) {
+        renderer.setGlyphTextEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Sets the number of decimals the progress is rounded down to before being formatted as text.
+     *
+     * @param precision the text precision.
+     * @throws IllegalArgumentException if the given precision is not a valid TextPrecision constant.
+     */
+    public PercentageChartView textPrecision(@TextPrecision int precision) {
+        if (precision < TEXT_PRECISION_INTEGER || precision > TEXT_PRECISION_TWO_DECIMALS) {
+            throw new IllegalArgumentException("Text precision must be a valid TextPrecision constant.");
+        }
+        renderer.setTextPrecision(precision);
+        return this;
+    }
+
+    /**
+     * Sets the minimum sweep change, in degrees, needed to redraw the progress while animating.
+     *
+     * @param delta non-negative sweep delta in degrees.
+     * @throws IllegalArgumentException if the given delta is negative.
+     */
+    public PercentageChartView minSweepDelta(@FloatRange(from = 0) float delta) {
+        if (delta < 0) {
+            throw new IllegalArgumentException("Minimum sweep delta must be a positive value.");
+        }
+        renderer.setMinSweepDelta(delta);
+        return this;
+    }
+
+    /**
+     * Sets whether the chart runs in static mode. A static chart releases its animation state once
+     * it has been idle for a while, and allocates it again on the next animated update.
+     *
+     * @param enabled true to enable static mode, false otherwise.
+     */
+    public PercentageChartView staticModeEnabled(boolean enabled) {
+        renderer.setStaticModeEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Sets the filter applied to incoming progress values.
+     *
+     * @param smoothing the progress smoothing.
+     * @param cutoff    the cutoff frequency in Hz, lower values smooth more.
+     * @param beta      the speed coefficient of the One Euro filter.
+     * @throws IllegalArgumentException if the given smoothing is not a valid ProgressSmoothing constant, or, cutoff is not positive, or, beta is negative.
+     * @see #setProgressSmoothing(int, float, float)
+     */
+    public PercentageChartView progressSmoothing(@ProgressSmoothing int smoothing, float cutoff, float beta) {
+        if (smoothing < SMOOTHING_NONE || smoothing > SMOOTHING_ONE_EURO) {
+            throw new IllegalArgumentException("Progress smoothing must be a valid ProgressSmoothing constant.");
+        }
+        if (!(cutoff > 0)) {
+            throw new IllegalArgumentException("Smoothing cutoff must be a positive value.");
+        }
+        if (beta < 0) {
+            throw new IllegalArgumentException("Smoothing beta must be a positive value.");
+        }
+        renderer.setProgressSmoothing(smoothing, cutoff, beta);
+        return this;
+    }
+
+    /**
+     * Sets whether animated progress updates are extrapolated between sparse updates.
+     *
+     * @param enabled true to enable progress extrapolation, false otherwise.
+     * @see #setProgressExtrapolationEnabled(boolean)
+     */
+    public PercentageChartView progressExtrapolationEnabled(boolean enabled) {
+        renderer.setProgressExtrapolationEnabled(enabled);
+        return this;
+    }
+
     /**
      * Sets the offset of the circular background. Works only if chart mode is set to pie.
      *
@@ -953,12 +1493,23 @@ public class PercentageChartView extends View implements IPercentageChartView {
      * @throws IllegalArgumentException if the given offset is a negative value, or, not supported by the current used chart mode.
      */
     public PercentageChartView backgroundOffset(@IntRange(from = 0) int offset) {
+        return backgroundOffset(offset, false);
+    }
+
+    /**
+     * Sets the offset of the circular background. Works only if chart mode is set to pie.
+     *
+     * @param offset A positive offset value.
+     * @param animate True to animate from the current value, false to apply it at once.
+     * @throws IllegalArgumentException if the given offset is a negative value, or, not supported by the current used chart mode.
+     */
+    public PercentageChartView backgroundOffset(@IntRange(from = 0) int offset, boolean animate) {
         if (offset < 0) {
             throw new IllegalArgumentException("Background offset must be a positive value.");
         }
 
         try {
-            ((OffsetEnabledMode) renderer).setBackgroundOffset(offset);
+            ((OffsetEnabledMode) renderer).setBackgroundOffset(offset, animate);
         } catch (ClassCastException e) {
             throw new IllegalArgumentException("Background offset is not support by the used percentage chart mode.");
         }
@@ -1002,12 +1553,23 @@ public class PercentageChartView extends View implements IPercentageChartView {
      * @throws IllegalArgumentException if the given value is negative, or, background bar thickness is not supported by the current used chart mode.
      */
     public PercentageChartView backgroundBarThickness(@FloatRange(from = 0) float thickness) {
+        return backgroundBarThickness(thickness, false);
+    }
+
+    /**
+     * Sets the background bar thickness in pixels. Works only if chart mode is set to ring.
+     *
+     * @param thickness non-negative thickness value in pixels.
+     * @param animate True to animate from the current value, false to apply it at once.
+     * @throws IllegalArgumentException if the given value is negative, or, background bar thickness is not supported by the current used chart mode.
+     */
+    public PercentageChartView backgroundBarThickness(@FloatRange(from = 0) float thickness, boolean animate) {
         if (thickness < 0) {
             throw new IllegalArgumentException("Background bar thickness must be a positive value.");
         }
 
         try {
-            ((RingModeRenderer) renderer).setBackgroundBarThickness(thickness);
+            ((RingModeRenderer) renderer).setBackgroundBarThickness(thickness, animate);
         } catch (ClassCastException e) {
             throw new IllegalArgumentException("Background bar thickness is not support by the used percentage chart mode.");
         }
@@ -1021,12 +1583,23 @@ public class PercentageChartView extends View implements IPercentageChartView {
      * @throws IllegalArgumentException if the given value is negative, or, progress bar thickness is not supported by the current used chart mode.
      */
     public PercentageChartView progressBarThickness(@FloatRange(from = 0) float thickness) {
+        return progressBarThickness(thickness, false);
+    }
+
+    /**
+     * Sets the progress bar thickness in pixels. Works only if chart mode is set to ring.
+     *
+     * @param thickness non-negative thickness value in pixels.
+     * @param animate True to animate from the current value, false to apply it at once.
+     * @throws IllegalArgumentException if the given value is negative, or, progress bar thickness is not supported by the current used chart mode.
+     */
+    public PercentageChartView progressBarThickness(@FloatRange(from = 0) float thickness, boolean animate) {
         if (thickness < 0) {
             throw new IllegalArgumentException("Progress bar thickness must be a positive value.");
         }
 
         try {
-            ((RingModeRenderer) renderer).setProgressBarThickness(thickness);
+            ((RingModeRenderer) renderer).setProgressBarThickness(thickness, animate);
         } catch (ClassCastException e) {
             throw new IllegalArgumentException("Progress bar thickness is not support by the used percentage chart mode.");
         }
@@ -1052,11 +1625,24 @@ public class PercentageChartView extends View implements IPercentageChartView {
         return this;
     }
 
+    /**
+     * Starts an edit transaction. Style changes requested until {@link #apply()} is called only record
+     * what has to be rebuilt, then apply() runs a single geometry pass, shader rebuild and text layout
+     * followed by a single invalidation. Transactions can be nested, only the outermost apply() commits.
+     *
+     * @return this chart view
+     */
+    public PercentageChartView edit() {
+        renderer.beginEdit();
+        return this;
+    }
+
     /**
      * Apply all the requested changes.
      */
     public void apply() {
-        postInvalidate();
+        renderer.endEdit();
+        scheduleInvalidate();
     }
 
     //##############################################################################################   ADAPTIVE COLOR PROVIDER
@@ -1064,14 +1650,195 @@ public class PercentageChartView extends View implements IPercentageChartView {
         this.renderer.setAdaptiveColorProvider(adaptiveColorProvider);
     }
 
+    /**
+     * Samples the adaptive color provider once into lookup tables read on every frame, so that colors
+     * follow the animated progress instead of animating towards the target color.
+     *
+     * @param resolution  number of samples per color over [0..100], 0 to call the provider directly.
+     * @param interpolate True if colors between two samples should be blended, false otherwise.
+     * @throws IllegalArgumentException if the given resolution is neither 0 nor at least 2.
+     */
+    public void setAdaptiveColorTable(@IntRange(from = 0) int resolution, boolean interpolate) {
+        if (resolution < 0 || resolution == 1) {
+            throw new IllegalArgumentException("Resolution must be 0 or equal or greater than 2.");
+        }
+        this.renderer.setAdaptiveColorTable(resolution, interpolate);
+    }
+
     //##############################################################################################   TEXT FORMATTER
     public void setTextFormatter(@Nullable ProgressTextFormatter textFormatter) {
         this.renderer.setTextFormatter(textFormatter);
     }
 
+    public void setTextAppender(@Nullable ProgressTextAppender textAppender) {
+        this.renderer.setTextAppender(textAppender);
+    }
+
+    //##############################################################################################   AGGREGATOR
+
+    /**
+     * Gets the progress aggregator this chart draws.
+     *
+     * @return the attached aggregator, null if none is attached.
+     */
+    @Nullable
+    public ProgressAggregator getProgressAggregator() {
+        return progressAggregator;
+    }
+
+    /**
+     * Draws the aggregated progress of the given aggregator, summed once per frame whenever one of its
+     * sources changes. The aggregator only references the chart while it is attached to a window.
+     * Passing null detaches the current aggregator and keeps the last progress drawn.
+     *
+     * @param aggregator the aggregator to draw, or null.
+     * @param animate    Animation boolean value to set whether to animate progress changes or not.
+     * @throws IllegalStateException if the given aggregator is already drawn by another chart.
+     */
+    public void setProgressAggregator(@Nullable ProgressAggregator aggregator, boolean animate) {
+        if (aggregator != null) {
+            aggregator.bind(this);
+        }
+        if (progressAggregator != null && progressAggregator != aggregator) {
+            progressAggregator.unbind(this);
+        }
+        progressAggregator = aggregator;
+        progressAggregatorAnimate = animate;
+        // A DETACHED CHART IS ATTACHED TO THE AGGREGATOR ONCE IT IS ATTACHED TO A WINDOW
+        if (aggregator != null && getWindowToken() != null) {
+            aggregator.attach(this, animate);
+        }
+    }
+
     //##############################################################################################   LISTENER
     public void setOnProgressChangeListener(@Nullable OnProgressChangeListener onProgressChangeListener) {
         this.onProgressChangeListener = onProgressChangeListener;
     }
 
+    //##############################################################################################   SAVED STATE
+    // PRIMITIVES ONLY, RING AND GRADIENT VALUES ARE WRITTEN ONLY WHEN THE CHART USES THEM
+    static class SavedState extends BaseSavedState {
+
+        static final int FLAG_DRAW_BG = 1;
+        static final int FLAG_DRAW_BG_BAR = 1 << 1;
+
+        int mode;
+        int flags;
+        int orientation;
+        float startAngle;
+        int duration;
+
+        float progress;
+        int progressColor;
+
+        int backgroundColor;
+        int backgroundOffset;
+
+        int textColor;
+        float textSize;
+        int textShadowColor;
+        float textShadowRadius;
+        float textShadowDistX;
+        float textShadowDistY;
+
+        float progressBarThickness;
+        int progressBarStyle;
+        int backgroundBarColor;
+        float backgroundBarThickness;
+
+        int gradientType;
+        float gradientAngle;
+        int[] gradientColors;
+        float[] gradientPositions;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            mode = in.readInt();
+            flags = in.readInt();
+            orientation = in.readInt();
+            startAngle = in.readFloat();
+            duration = in.readInt();
+
+            progress = in.readFloat();
+            progressColor = in.readInt();
+
+            backgroundColor = in.readInt();
+            backgroundOffset = in.readInt();
+
+            textColor = in.readInt();
+            textSize = in.readFloat();
+            textShadowColor = in.readInt();
+            textShadowRadius = in.readFloat();
+            textShadowDistX = in.readFloat();
+            textShadowDistY = in.readFloat();
+
+            if (mode == MODE_RING) {
+                progressBarThickness = in.readFloat();
+                progressBarStyle = in.readInt();
+                backgroundBarColor = in.readInt();
+                backgroundBarThickness = in.readFloat();
+            }
+
+            gradientType = in.readInt();
+            if (gradientType != -1) {
+                gradientAngle = in.readFloat();
+                gradientColors = in.createIntArray();
+                gradientPositions = in.createFloatArray();
+            }
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(mode);
+            out.writeInt(this.flags);
+            out.writeInt(orientation);
+            out.writeFloat(startAngle);
+            out.writeInt(duration);
+
+            out.writeFloat(progress);
+            out.writeInt(progressColor);
+
+            out.writeInt(backgroundColor);
+            out.writeInt(backgroundOffset);
+
+            out.writeInt(textColor);
+            out.writeFloat(textSize);
+            out.writeInt(textShadowColor);
+            out.writeFloat(textShadowRadius);
+            out.writeFloat(textShadowDistX);
+            out.writeFloat(textShadowDistY);
+
+            if (mode == MODE_RING) {
+                out.writeFloat(progressBarThickness);
+                out.writeInt(progressBarStyle);
+                out.writeInt(backgroundBarColor);
+                out.writeFloat(backgroundBarThickness);
+            }
+
+            out.writeInt(gradientType);
+            if (gradientType != -1) {
+                out.writeFloat(gradientAngle);
+                out.writeIntArray(gradientColors);
+                out.writeFloatArray(gradientPositions);
+            }
+        }
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
 }
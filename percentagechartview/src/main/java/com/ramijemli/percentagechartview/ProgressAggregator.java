@@ -0,0 +1,260 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview;
+
+import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates the progress of many parallel tasks into a single chart. Every task updates its own
+ * source, so workers never contend with each other, and the attached chart sums the sources once
+ * per frame, only when one of them changed. Sources can be created and updated from any thread,
+ * while the aggregator itself is drawn by a single chart.
+ */
+public final class ProgressAggregator {
+
+    private final Object mLock = new Object();
+
+    // COPY ON WRITE, ADDING A SOURCE IS RARE WHILE SUMMING HAPPENS EVERY FRAME
+    private volatile Source[] mSources = new Source[0];
+    private volatile double mTotalWeight;
+
+    private final AtomicBoolean mDirty = new AtomicBoolean();
+
+    // CHART THE AGGREGATOR WAS HANDED TO, WEAK SO THAT A DROPPED CHART IS NOT KEPT ALIVE
+    @Nullable
+    private WeakReference<PercentageChartView> mOwner;
+
+    // SET ONLY WHILE THE OWNER IS ATTACHED TO A WINDOW
+    @Nullable
+    private volatile PercentageChartView mChart;
+    private volatile boolean mAnimate;
+
+    // POSTED TO THE MAIN LOOPER, A WORKER THREAD NEVER POSTS TO THE CHART ITSELF
+    private final Runnable mSchedule = new Runnable() {
+        @Override
+        public void run() {
+            PercentageChartView chart = mChart;
+            if (chart == null) {
+                mDirty.set(false);
+                return;
+            }
+            chart.postOnNextFrame(mPublish);
+        }
+    };
+
+    private final Runnable mPublish = new Runnable() {
+        @Override
+        public void run() {
+            PercentageChartView chart = mChart;
+            // CLEARED BEFORE SUMMING SO THAT UPDATES MADE WHILE SUMMING SCHEDULE ANOTHER FRAME
+            mDirty.set(false);
+            if (chart == null) return;
+            chart.setProgress(getProgress(), mAnimate);
+        }
+    };
+
+    /**
+     * Adds a source of weight 1.
+     *
+     * @param total the count at which the source is complete.
+     * @return the new source.
+     * @throws IllegalArgumentException if the given total is not positive.
+     */
+    @NonNull
+    public Source newSource(long total) {
+        return newSource(total, 1f);
+    }
+
+    /**
+     * Adds a source whose share of the aggregated progress is proportional to its weight.
+     *
+     * @param total  the count at which the source is complete.
+     * @param weight a positive weight.
+     * @return the new source.
+     * @throws IllegalArgumentException if the given total or weight is not positive.
+     */
+    @NonNull
+    public Source newSource(long total, @FloatRange(from = 0, fromInclusive = false) float weight) {
+        if (total <= 0) {
+            throw new IllegalArgumentException("Source total must be a positive value.");
+        }
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("Source weight must be a positive value.");
+        }
+
+        Source source = new Source(total, weight);
+        synchronized (mLock) {
+            Source[] sources = Arrays.copyOf(mSources, mSources.length + 1);
+            sources[sources.length - 1] = source;
+            mTotalWeight += weight;
+            mSources = sources;
+        }
+        invalidate();
+        return source;
+    }
+
+    /**
+     * Gets the number of sources added so far.
+     *
+     * @return the number of sources.
+     */
+    public int getSourceCount() {
+        return mSources.length;
+    }
+
+    /**
+     * Sums every source into a weighted progress. Can be called from any thread.
+     *
+     * @return the aggregated progress, between 0 and 100.
+     */
+    @FloatRange(from = 0f, to = 100f)
+    public float getProgress() {
+        Source[] sources;
+        double totalWeight;
+        synchronized (mLock) {
+            sources = mSources;
+            totalWeight = mTotalWeight;
+        }
+        if (totalWeight == 0) return 0;
+
+        double sum = 0;
+        for (Source source : sources) {
+            sum += source.mWeight * ((double) source.mCurrent.get() / source.mTotal);
+        }
+        return (float) Math.min(100, sum * 100 / totalWeight);
+    }
+
+    // MAIN THREAD ONLY, A SINGLE CHART DRAWS AN AGGREGATOR
+    void bind(@NonNull PercentageChartView chart) {
+        PercentageChartView owner = (mOwner != null) ? mOwner.get() : null;
+        if (owner == chart) return;
+        if (owner != null) {
+            throw new IllegalStateException("Progress aggregator is already drawn by another chart.");
+        }
+        mOwner = new WeakReference<>(chart);
+    }
+
+    // MAIN THREAD ONLY
+    void unbind(@NonNull PercentageChartView chart) {
+        detach(chart);
+        if (mOwner != null && mOwner.get() == chart) {
+            mOwner = null;
+        }
+    }
+
+    // MAIN THREAD ONLY
+    void attach(@NonNull PercentageChartView chart, boolean animate) {
+        mAnimate = animate;
+        mChart = chart;
+        mDirty.set(true);
+        chart.postOnNextFrame(mPublish);
+    }
+
+    // MAIN THREAD ONLY, A SUM THAT WAS STILL PENDING IS DROPPED AND THE NEXT UPDATE SCHEDULES AGAIN
+    void detach(@NonNull PercentageChartView chart) {
+        if (mChart != chart) return;
+        mChart = null;
+        chart.removeCallbacks(mPublish);
+        mDirty.set(false);
+    }
+
+    private void invalidate() {
+        // ONLY THE UPDATE THAT DIRTIES A CLEAN AGGREGATOR SCHEDULES THE NEXT SUM, ATTACHING PUBLISHES ANYWAY
+        if (mChart == null || !mDirty.compareAndSet(false, true)) return;
+        PercentageChartView.runOnMainThread(mSchedule);
+    }
+
+    /**
+     * Progress of a single task. Each source owns its counter, so concurrent sources never contend.
+     */
+    public final class Source {
+
+        final long mTotal;
+        final float mWeight;
+        final AtomicLong mCurrent = new AtomicLong();
+
+        Source(long total, float weight) {
+            this.mTotal = total;
+            this.mWeight = weight;
+        }
+
+        /**
+         * Sets the current count of this source. Counts beyond the total are treated as complete.
+         *
+         * @param current a positive count.
+         * @throws IllegalArgumentException if the given count is negative.
+         */
+        public void setProgress(long current) {
+            if (current < 0) {
+                throw new IllegalArgumentException("Progress count must be a positive value.");
+            }
+            long clamped = Math.min(current, mTotal);
+            if (mCurrent.getAndSet(clamped) != clamped) {
+                invalidate();
+            }
+        }
+
+        /**
+         * Adds to the current count of this source, typically the bytes read since the last call.
+         *
+         * @param delta a positive count.
+         * @throws IllegalArgumentException if the given count is negative.
+         */
+        public void add(long delta) {
+            if (delta < 0) {
+                throw new IllegalArgumentException("Progress count must be a positive value.");
+            }
+            if (delta == 0) return;
+
+            long current;
+            long next;
+            do {
+                current = mCurrent.get();
+                if (current == mTotal) return;
+                next = (delta >= mTotal - current) ? mTotal : current + delta;
+            } while (!mCurrent.compareAndSet(current, next));
+            invalidate();
+        }
+
+        /**
+         * Marks this source as complete.
+         */
+        public void complete() {
+            setProgress(mTotal);
+        }
+
+        public long getProgress() {
+            return mCurrent.get();
+        }
+
+        public long getTotal() {
+            return mTotal;
+        }
+
+        public float getWeight() {
+            return mWeight;
+        }
+    }
+
+}
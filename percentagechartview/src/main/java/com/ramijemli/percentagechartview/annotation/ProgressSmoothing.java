@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+import androidx.annotation.IntDef;
+
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.SMOOTHING_EMA;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.SMOOTHING_NONE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.SMOOTHING_ONE_EURO;
+
+@Retention(RetentionPolicy.SOURCE)
+@IntDef({SMOOTHING_NONE, SMOOTHING_EMA, SMOOTHING_ONE_EURO})
+public @interface ProgressSmoothing {
+}
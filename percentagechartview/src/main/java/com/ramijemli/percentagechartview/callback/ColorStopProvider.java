@@ -0,0 +1,126 @@
+package com.ramijemli.percentagechartview.callback;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.graphics.ColorUtils;
+
+import java.util.Arrays;
+
+public class ColorStopProvider implements AdaptiveColorProvider {
+
+    public static final int MODE_STEP = 0;
+    public static final int MODE_INTERPOLATE = 1;
+
+    private final float[] mStops;
+    private final int mMode;
+    private int[] mProgressColors;
+    private int[] mBackgroundColors;
+    private int[] mTextColors;
+    private int[] mBackgroundBarColors;
+    private boolean mFrozen;
+
+    public ColorStopProvider(@NonNull float[] stops, int mode) {
+        if (stops.length == 0) {
+            throw new IllegalArgumentException("There must be at least one color stop.");
+        }
+        for (int i = 1; i < stops.length; i++) {
+            if (stops[i] <= stops[i - 1]) {
+                throw new IllegalArgumentException("Color stops must be sorted in ascending order.");
+            }
+        }
+        if (mode != MODE_STEP && mode != MODE_INTERPOLATE) {
+            throw new IllegalArgumentException("Mode must be MODE_STEP or MODE_INTERPOLATE.");
+        }
+        this.mStops = stops.clone();
+        this.mMode = mode;
+    }
+
+    public ColorStopProvider progressColors(@Nullable @ColorInt int[] colors) {
+        checkNotFrozen();
+        this.mProgressColors = checkColors(colors);
+        return this;
+    }
+
+    public ColorStopProvider backgroundColors(@Nullable @ColorInt int[] colors) {
+        checkNotFrozen();
+        this.mBackgroundColors = checkColors(colors);
+        return this;
+    }
+
+    public ColorStopProvider textColors(@Nullable @ColorInt int[] colors) {
+        checkNotFrozen();
+        this.mTextColors = checkColors(colors);
+        return this;
+    }
+
+    public ColorStopProvider backgroundBarColors(@Nullable @ColorInt int[] colors) {
+        checkNotFrozen();
+        this.mBackgroundBarColors = checkColors(colors);
+        return this;
+    }
+
+    // STYLES SHARE THEIR COLOR STOPS BETWEEN CHARTS AND SAMPLE THEM INTO TABLES, THEY MUST NOT CHANGE AFTERWARDS
+    @NonNull
+    public ColorStopProvider freeze() {
+        mFrozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return mFrozen;
+    }
+
+    public int getMode() {
+        return mMode;
+    }
+
+    @Override
+    public int provideProgressColor(float progress) {
+        return colorAt(mProgressColors, progress);
+    }
+
+    @Override
+    public int provideBackgroundColor(float progress) {
+        return colorAt(mBackgroundColors, progress);
+    }
+
+    @Override
+    public int provideTextColor(float progress) {
+        return colorAt(mTextColors, progress);
+    }
+
+    @Override
+    public int provideBackgroundBarColor(float progress) {
+        return colorAt(mBackgroundBarColors, progress);
+    }
+
+    private int colorAt(int[] colors, float progress) {
+        if (colors == null) return -1;
+
+        // INDEX OF THE LAST STOP LOWER OR EQUAL TO PROGRESS, PROGRESS BELOW THE FIRST STOP TAKES ITS COLOR
+        int index = Arrays.binarySearch(mStops, progress);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0) return colors[0];
+        if (mMode == MODE_STEP || index == mStops.length - 1) return colors[index];
+
+        float fraction = (progress - mStops[index]) / (mStops[index + 1] - mStops[index]);
+        return ColorUtils.blendARGB(colors[index], colors[index + 1], fraction);
+    }
+
+    private void checkNotFrozen() {
+        if (mFrozen) {
+            throw new IllegalStateException("Color stops can not be changed once bound to a chart style.");
+        }
+    }
+
+    private int[] checkColors(int[] colors) {
+        if (colors != null && colors.length != mStops.length) {
+            throw new IllegalArgumentException("There must be exactly one color per color stop.");
+        }
+        return (colors != null) ? colors.clone() : null;
+    }
+
+}
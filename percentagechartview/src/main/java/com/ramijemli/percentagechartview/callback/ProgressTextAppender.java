@@ -0,0 +1,9 @@
+package com.ramijemli.percentagechartview.callback;
+
+import androidx.annotation.NonNull;
+
+public interface ProgressTextAppender {
+
+    void appendFormattedText(@NonNull StringBuilder out, float progress);
+
+}
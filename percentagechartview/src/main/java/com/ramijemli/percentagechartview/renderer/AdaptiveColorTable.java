@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import com.ramijemli.percentagechartview.callback.AdaptiveColorProvider;
+
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_BACKGROUND_BAR_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_BACKGROUND_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_PROGRESS_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_TEXT_COLOR;
+
+/**
+ * Samples every channel of an {@link AdaptiveColorProvider} once over the whole progress range so
+ * that colors can be read on each frame with an array lookup instead of calling the provider.
+ */
+final class AdaptiveColorTable {
+
+    private int[][] mColors;
+    private int mResolution;
+    private boolean mSampled;
+
+    void invalidate() {
+        mSampled = false;
+    }
+
+    boolean isSampled() {
+        return mSampled;
+    }
+
+    void sample(AdaptiveColorProvider provider, int resolution) {
+        if (mColors == null || mResolution != resolution) {
+            mColors = new int[CHANNEL_BACKGROUND_BAR_COLOR + 1][resolution];
+            mResolution = resolution;
+        }
+
+        for (int i = 0; i < resolution; i++) {
+            float progress = i * BaseModeRenderer.DEFAULT_MAX / (resolution - 1);
+            mColors[CHANNEL_PROGRESS_COLOR][i] = provider.provideProgressColor(progress);
+            mColors[CHANNEL_BACKGROUND_COLOR][i] = provider.provideBackgroundColor(progress);
+            mColors[CHANNEL_TEXT_COLOR][i] = provider.provideTextColor(progress);
+            mColors[CHANNEL_BACKGROUND_BAR_COLOR][i] = provider.provideBackgroundBarColor(progress);
+        }
+        mSampled = true;
+    }
+
+    int colorAt(int channel, float progress, boolean interpolate) {
+        int[] colors = mColors[channel];
+        float position = progress / BaseModeRenderer.DEFAULT_MAX * (mResolution - 1);
+        if (position <= 0) return colors[0];
+        if (position >= mResolution - 1) return colors[mResolution - 1];
+
+        int index = (int) position;
+        float fraction = position - index;
+        int from = colors[index];
+        int to = colors[index + 1];
+
+        // -1 MEANS THE PROVIDER HAS NO COLOR FOR THAT PROGRESS, SUCH ENTRIES ARE NEVER BLENDED
+        if (!interpolate || from == -1 || to == -1) {
+            return (fraction < 0.5f) ? from : to;
+        }
+        return ChartAnimator.blendArgb(from, to, fraction);
+    }
+
+}
@@ -17,12 +17,11 @@
 package com.ramijemli.percentagechartview.renderer;
 
 
-import android.animation.ArgbEvaluator;
 import android.animation.TimeInterpolator;
-import android.animation.ValueAnimator;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.RectF;
 import android.graphics.Shader;
@@ -31,7 +30,9 @@ import android.os.Build;
 import android.text.DynamicLayout;
 import android.text.Editable;
 import android.text.Layout;
+import android.text.Spanned;
 import android.text.TextPaint;
+import android.text.TextUtils;
 import android.util.TypedValue;
 import android.view.InflateException;
 import android.view.animation.AccelerateDecelerateInterpolator;
@@ -40,11 +41,11 @@ import android.view.animation.AnticipateInterpolator;
 import android.view.animation.AnticipateOvershootInterpolator;
 import android.view.animation.BounceInterpolator;
 import android.view.animation.DecelerateInterpolator;
-import android.view.animation.Interpolator;
 import android.view.animation.LinearInterpolator;
 import android.view.animation.OvershootInterpolator;
 
 import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.interpolator.view.animation.FastOutLinearInInterpolator;
 import androidx.interpolator.view.animation.FastOutSlowInInterpolator;
@@ -52,10 +53,22 @@ import androidx.interpolator.view.animation.LinearOutSlowInInterpolator;
 
 import com.ramijemli.percentagechartview.IPercentageChartView;
 import com.ramijemli.percentagechartview.R;
-import com.ramijemli.percentagechartview.annotation.ProgressOrientation;
+import com.ramijemli.percentagechartview.annotation.ProgressSmoothing;
+import com.ramijemli.percentagechartview.annotation.TextPrecision;
 import com.ramijemli.percentagechartview.callback.AdaptiveColorProvider;
+import com.ramijemli.percentagechartview.callback.ColorStopProvider;
+import com.ramijemli.percentagechartview.callback.ProgressTextAppender;
 import com.ramijemli.percentagechartview.callback.ProgressTextFormatter;
 
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_BACKGROUND_BAR_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_BACKGROUND_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_PROGRESS_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_TEXT_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_BACKGROUND_OFFSET;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_GRADIENT_ANGLE;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_START_ANGLE;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_TEXT_SCALE;
+
 
 public abstract class BaseModeRenderer {
 
@@ -76,11 +89,26 @@ public abstract class BaseModeRenderer {
     public static final int GRADIENT_RADIAL = 1;
     public static final int GRADIENT_SWEEP = 2;
 
+    // TEXT PRECISION
+    public static final int TEXT_PRECISION_INTEGER = 0;
+    public static final int TEXT_PRECISION_ONE_DECIMAL = 1;
+    public static final int TEXT_PRECISION_TWO_DECIMALS = 2;
+    private static final int[] TEXT_PRECISION_SCALES = {1, 10, 100};
+
+    // PROGRESS SMOOTHING
+    public static final int SMOOTHING_NONE = 0;
+    public static final int SMOOTHING_EMA = 1;
+    public static final int SMOOTHING_ONE_EURO = 2;
+    static final float DEFAULT_SMOOTHING_CUTOFF = 2;
+    static final float DEFAULT_SMOOTHING_BETA = .05f;
+
     // TEXT
-    private static final float DEFAULT_TEXT_SP_SIZE = 12;
+    static final float DEFAULT_TEXT_SP_SIZE = 12;
+    private static final int TEXT_BUFFER_CAPACITY = 16;
 
     //ANIMATIONS
     private static final int DEFAULT_ANIMATION_INTERPOLATOR = 0;
+    private static final long STATIC_MODE_IDLE_TIMEOUT = 2000;
     public static final int LINEAR = 0;
     public static final int ACCELERATE = 1;
     public static final int DECELERATE = 2;
@@ -93,201 +121,236 @@ public abstract class BaseModeRenderer {
     public static final int FAST_OUT_SLOW_IN = 9;
     public static final int LINEAR_OUT_SLOW_IN = 10;
 
-    private static final int DEFAULT_START_ANGLE = 0;
-    private static final int DEFAULT_ANIMATION_DURATION = 400;
+    static final int DEFAULT_START_ANGLE = 0;
+    static final int DEFAULT_ANIMATION_DURATION = 400;
     static final float DEFAULT_MAX = 100;
 
 
     //##############################################################################################
     // BACKGROUND
-    boolean mDrawBackground;
     Paint mBackgroundPaint;
-    int mBackgroundColor;
     int mBackgroundOffset;
 
     private int mProvidedBackgroundColor;
 
     // PROGRESS
     Paint mProgressPaint;
-    int mProgressColor;
 
-    int[] mGradientColors;
-    float[] mGradientDistributions;
-    int mGradientType;
     float mGradientAngle;
     Shader mGradientShader;
 
+    // PRIVATE SHADER USED WHILE STYLE PROPERTIES ANIMATE, CACHED SHADERS ARE SHARED AND NEVER MUTATED
+    private Shader mAnimatedShader;
+    private RectF mAnimatedShaderBounds;
+    private Matrix mShaderMatrix;
+    private float mShaderAngle;
+
     // TEXT
     TextPaint mTextPaint;
-    int mTextColor;
     private int mProvidedTextColor;
-    private int mTextProgress;
-    private float mTextSize;
-    private int mTextStyle;
-    private Typeface mTypeface;
-    private int mTextShadowColor;
-    private float mTextShadowRadius;
-    private float mTextShadowDistY;
-    private float mTextShadowDistX;
-    private Editable mTextEditor;
-    private DynamicLayout mTextLayout;
+    private float mTextProgress;
+    private int mTextProgressUnits;
+    private float mTextScale;
+    private StringBuilder mTextBuilder;
+    private char[] mTextChars;
+    private int mTextLength;
+    private boolean mDrawPlainText;
+    private Paint.FontMetrics mTextMetrics;
+    private float mTextMetricsSize;
+    private Typeface mTextMetricsTypeface;
+    private Layout mTextLayout;
+    // STYLED OR MULTI-LINE TEXT, LAID OUT BY THIS RENDERER AND REFLOWED IN PLACE ON EVERY CHANGE
+    private Editable mStyledText;
+    private DynamicLayout mStyledTextLayout;
+    private GlyphTextRenderer mGlyphText;
+    private boolean mGlyphTextEnabled;
+    private boolean mDrawGlyphText;
 
     // COMMON
+    int mClockIndex = ChartClock.NOT_REGISTERED;
+    StaticLayer mStaticLayer;
     RectF mBackgroundBounds;
     RectF mCircleBounds;
-    ValueAnimator mProgressColorAnimator, mBackgroundColorAnimator, mTextColorAnimator, mBgBarColorAnimator;
-    private ValueAnimator mProgressAnimator;
-    private Interpolator mAnimInterpolator;
-    int mAnimDuration;
+    @Nullable
+    ChartAnimator mAnimator;
+    private Runnable mAnimatorRelease;
     float mProgress;
+    // WHILE EXTRAPOLATING, THE LAST REAL SAMPLE IS REPORTED INSTEAD OF THE DRAWN PROGRESS
+    private boolean mReportSample;
+    private float mSampleProgress;
     float mStartAngle;
     float mSweepAngle;
+    private float mGeometryProgress;
+    boolean mFrameDirty;
+
+    // LAST MEASURE INPUTS
+    private int mMeasureWidth;
+    private int mMeasureHeight;
+    private int mPaddingLeft;
+    private int mPaddingTop;
+    private int mPaddingRight;
+    private int mPaddingBottom;
+    private boolean mGeometryDirty;
+
+    // WORK DEFERRED UNTIL AN EDIT IS APPLIED OR THE NEXT FRAME IS DRAWN
+    private static final int PENDING_GEOMETRY = 1;
+    private static final int PENDING_SHADER = 1 << 1;
+    private static final int PENDING_TEXT = 1 << 2;
+
+    private int mEditDepth;
+    private int mPendingWork;
 
     private int mProvidedProgressColor;
 
-    @ProgressOrientation
-    int orientation;
     @Nullable
     AdaptiveColorProvider mAdaptiveColorProvider;
+
+    // LOOK OF THE CHART, SHARED WITH EVERY CHART BOUND TO THE SAME STYLE AND NEVER MUTATED
+    ChartStyle mStyle;
+    private AdaptiveColorTable mColorTable;
+    private int mColorTableResolution;
+    private boolean mColorTableInterpolation;
     @Nullable
-    private ProgressTextFormatter mProvidedTextFormatter, defaultTextFormatter;
+    private ProgressTextFormatter mProvidedTextFormatter;
+    private ProgressTextAppender mProvidedTextAppender;
 
     IPercentageChartView mView;
 
 
     BaseModeRenderer(IPercentageChartView view) {
         mView = view;
+        initStyle();
+    }
 
-        //DRAWING ORIENTATION
-        orientation = ORIENTATION_CLOCKWISE;
+    BaseModeRenderer(IPercentageChartView view, TypedArray attrs) {
+        mView = view;
+        initStyle(attrs);
+    }
 
-        //START DRAWING ANGLE
-        mStartAngle = DEFAULT_START_ANGLE;
+    BaseModeRenderer(IPercentageChartView view, ChartStyle style) {
+        mView = view;
+        initStyle(style);
+    }
 
-        //BACKGROUND DRAW STATE
-        mDrawBackground = this instanceof PieModeRenderer;
+    void initStyle() {
+        initStyle(new ChartStyle.Builder(mView.getViewContext(), getMode()).build());
+    }
 
-        //BACKGROUND COLOR
-        mBackgroundColor = Color.BLACK;
+    void initStyle(TypedArray attrs) {
+        ChartStyle.Builder builder = new ChartStyle.Builder(getMode());
+        readStyle(attrs, builder);
+        initStyle(builder.build());
 
         //PROGRESS
-        mProgress = mTextProgress = 0;
-
-        //PROGRESS COLOR
-        mProgressColor = Color.RED;
-
-        //GRADIENT COLORS
-        mGradientType = -1;
-        mGradientAngle = (int) mStartAngle;
-
-        //PROGRESS ANIMATION DURATION
-        mAnimDuration = DEFAULT_ANIMATION_DURATION;
-
-        //PROGRESS ANIMATION INTERPOLATOR
-        mAnimInterpolator = new LinearInterpolator();
-
-        //TEXT COLOR
-        mTextColor = Color.WHITE;
-
-        //TEXT SIZE
-        mTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP,
-                DEFAULT_TEXT_SP_SIZE,
-                mView.getViewContext().getResources().getDisplayMetrics());
-
-        //TEXT STYLE
-        mTextStyle = Typeface.NORMAL;
-
-        //TEXT SHADOW
-        mTextShadowColor = Color.TRANSPARENT;
-        mTextShadowRadius = 0;
-        mTextShadowDistX = 0;
-        mTextShadowDistY = 0;
-
-        //BACKGROUND OFFSET
-        mBackgroundOffset = 0;
+        mProgress = attrs.getFloat(R.styleable.PercentageChartView_pcv_progress, 0);
+        if (mProgress < 0) {
+            mProgress = 0;
+        } else if (mProgress > 100) {
+            mProgress = 100;
+        }
+        resetProgressState();
     }
 
-    BaseModeRenderer(IPercentageChartView view, TypedArray attrs) {
-        mView = view;
-
+    // XML ATTRIBUTES ARE PARSED INTO A STYLE, INFLATED CHARTS THEN READ THEIR LOOK LIKE STYLED ONES
+    void readStyle(TypedArray attrs, ChartStyle.Builder builder) {
         //DRAWING ORIENTATION
-        orientation = attrs.getInt(R.styleable.PercentageChartView_pcv_orientation, ORIENTATION_CLOCKWISE);
+        builder.orientation = attrs.getInt(R.styleable.PercentageChartView_pcv_orientation, ORIENTATION_CLOCKWISE);
 
         //START DRAWING ANGLE
-        mStartAngle = attrs.getInt(R.styleable.PercentageChartView_pcv_startAngle, DEFAULT_START_ANGLE);
-        if (mStartAngle < 0 || mStartAngle > 360) {
-            mStartAngle = DEFAULT_START_ANGLE;
+        builder.startAngle = attrs.getInt(R.styleable.PercentageChartView_pcv_startAngle, DEFAULT_START_ANGLE);
+        if (builder.startAngle < 0 || builder.startAngle > 360) {
+            builder.startAngle = DEFAULT_START_ANGLE;
         }
 
         //BACKGROUND DRAW STATE
-        mDrawBackground = attrs.getBoolean(R.styleable.PercentageChartView_pcv_drawBackground, (this instanceof PieModeRenderer || this instanceof FillModeRenderer));
+        builder.drawBackground = attrs.getBoolean(R.styleable.PercentageChartView_pcv_drawBackground, (this instanceof PieModeRenderer || this instanceof FillModeRenderer));
 
         //BACKGROUND COLOR
-        mBackgroundColor = attrs.getColor(R.styleable.PercentageChartView_pcv_backgroundColor, Color.BLACK);
+        builder.backgroundColor = attrs.getColor(R.styleable.PercentageChartView_pcv_backgroundColor, Color.BLACK);
 
-        //PROGRESS
-        mProgress = attrs.getFloat(R.styleable.PercentageChartView_pcv_progress, 0);
-        if (mProgress < 0) {
-            mProgress = 0;
-        } else if (mProgress > 100) {
-            mProgress = 100;
+        //TEXT PRECISION
+        builder.textPrecision = attrs.getInt(R.styleable.PercentageChartView_pcv_textPrecision, TEXT_PRECISION_INTEGER);
+        if (builder.textPrecision < TEXT_PRECISION_INTEGER || builder.textPrecision > TEXT_PRECISION_TWO_DECIMALS) {
+            builder.textPrecision = TEXT_PRECISION_INTEGER;
+        }
+
+        //MINIMUM SWEEP DELTA
+        builder.minSweepDelta = Math.max(0, attrs.getFloat(R.styleable.PercentageChartView_pcv_minSweepDelta, 0));
+
+        //STATIC MODE
+        builder.staticMode = attrs.getBoolean(R.styleable.PercentageChartView_pcv_staticMode, false);
+
+        //PROGRESS EXTRAPOLATION
+        builder.extrapolateProgress = attrs.getBoolean(R.styleable.PercentageChartView_pcv_extrapolateProgress, false);
+
+        //PROGRESS SMOOTHING
+        builder.smoothing = attrs.getInt(R.styleable.PercentageChartView_pcv_progressSmoothing, SMOOTHING_NONE);
+        if (builder.smoothing < SMOOTHING_NONE || builder.smoothing > SMOOTHING_ONE_EURO) {
+            builder.smoothing = SMOOTHING_NONE;
+        }
+        builder.smoothingCutoff = attrs.getFloat(R.styleable.PercentageChartView_pcv_smoothingCutoff, DEFAULT_SMOOTHING_CUTOFF);
+        if (builder.smoothingCutoff <= 0) {
+            builder.smoothingCutoff = DEFAULT_SMOOTHING_CUTOFF;
         }
-        mTextProgress = (int) mProgress;
+        builder.smoothingBeta = Math.max(0, attrs.getFloat(R.styleable.PercentageChartView_pcv_smoothingBeta, DEFAULT_SMOOTHING_BETA));
 
         //PROGRESS COLOR
-        mProgressColor = attrs.getColor(R.styleable.PercentageChartView_pcv_progressColor, getThemeAccentColor());
+        builder.progressColor = attrs.getColor(R.styleable.PercentageChartView_pcv_progressColor, getThemeAccentColor());
 
         //GRADIENT COLORS
-        initGradientColors(attrs);
+        readGradientColors(attrs, builder);
+
+        //COLOR STOPS
+        readColorStops(attrs, builder);
 
         //PROGRESS ANIMATION DURATION
-        mAnimDuration = attrs.getInt(R.styleable.PercentageChartView_pcv_animDuration, DEFAULT_ANIMATION_DURATION);
+        builder.animDuration = attrs.getInt(R.styleable.PercentageChartView_pcv_animDuration, DEFAULT_ANIMATION_DURATION);
 
         //PROGRESS ANIMATION INTERPOLATOR
         int interpolator = attrs.getInt(R.styleable.PercentageChartView_pcv_animInterpolator, DEFAULT_ANIMATION_INTERPOLATOR);
         switch (interpolator) {
             default:
             case LINEAR:
-                mAnimInterpolator = new LinearInterpolator();
+                builder.animInterpolator = new LinearInterpolator();
                 break;
 
             case ACCELERATE:
-                mAnimInterpolator = new AccelerateInterpolator();
+                builder.animInterpolator = new AccelerateInterpolator();
                 break;
             case DECELERATE:
-                mAnimInterpolator = new DecelerateInterpolator();
+                builder.animInterpolator = new DecelerateInterpolator();
                 break;
             case ACCELERATE_DECELERATE:
-                mAnimInterpolator = new AccelerateDecelerateInterpolator();
+                builder.animInterpolator = new AccelerateDecelerateInterpolator();
                 break;
             case ANTICIPATE:
-                mAnimInterpolator = new AnticipateInterpolator();
+                builder.animInterpolator = new AnticipateInterpolator();
                 break;
             case OVERSHOOT:
-                mAnimInterpolator = new OvershootInterpolator();
+                builder.animInterpolator = new OvershootInterpolator();
                 break;
             case ANTICIPATE_OVERSHOOT:
-                mAnimInterpolator = new AnticipateOvershootInterpolator();
+                builder.animInterpolator = new AnticipateOvershootInterpolator();
                 break;
             case BOUNCE:
-                mAnimInterpolator = new BounceInterpolator();
+                builder.animInterpolator = new BounceInterpolator();
                 break;
             case FAST_OUT_LINEAR_IN:
-                mAnimInterpolator = new FastOutLinearInInterpolator();
+                builder.animInterpolator = new FastOutLinearInInterpolator();
                 break;
             case FAST_OUT_SLOW_IN:
-                mAnimInterpolator = new FastOutSlowInInterpolator();
+                builder.animInterpolator = new FastOutSlowInInterpolator();
                 break;
             case LINEAR_OUT_SLOW_IN:
-                mAnimInterpolator = new LinearOutSlowInInterpolator();
+                builder.animInterpolator = new LinearOutSlowInInterpolator();
                 break;
         }
 
         //TEXT COLOR
-        mTextColor = attrs.getColor(R.styleable.PercentageChartView_pcv_textColor, Color.WHITE);
+        builder.textColor = attrs.getColor(R.styleable.PercentageChartView_pcv_textColor, Color.WHITE);
 
         //TEXT SIZE
-        mTextSize = attrs.getDimensionPixelSize(
+        builder.textSize = attrs.getDimensionPixelSize(
                 R.styleable.PercentageChartView_pcv_textSize,
                 (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP,
                         DEFAULT_TEXT_SP_SIZE,
@@ -297,147 +360,358 @@ public abstract class BaseModeRenderer {
         //TEXT TYPEFACE
         String typeface = attrs.getString(R.styleable.PercentageChartView_pcv_typeface);
         if (typeface != null && !typeface.isEmpty()) {
-            mTypeface = Typeface.createFromAsset(mView.getViewContext().getResources().getAssets(), typeface);
+            builder.typeface = TypefaceCache.fromAsset(mView.getViewContext().getResources().getAssets(), typeface);
         }
 
         //TEXT STYLE
-        mTextStyle = attrs.getInt(R.styleable.PercentageChartView_pcv_textStyle, Typeface.NORMAL);
-        if (mTextStyle > 0) {
-            mTypeface = (mTypeface == null) ? Typeface.defaultFromStyle(mTextStyle) : Typeface.create(mTypeface, mTextStyle);
+        builder.textStyle = attrs.getInt(R.styleable.PercentageChartView_pcv_textStyle, Typeface.NORMAL);
+        if (builder.textStyle > 0) {
+            builder.typeface = TypefaceCache.withStyle(builder.typeface, builder.textStyle);
         }
 
         //TEXT SHADOW
-        mTextShadowColor = attrs.getColor(R.styleable.PercentageChartView_pcv_textShadowColor, Color.TRANSPARENT);
-        if (mTextShadowColor != Color.TRANSPARENT) {
-            mTextShadowRadius = attrs.getFloat(R.styleable.PercentageChartView_pcv_textShadowRadius, 0);
-            mTextShadowDistX = attrs.getFloat(R.styleable.PercentageChartView_pcv_textShadowDistX, 0);
-            mTextShadowDistY = attrs.getFloat(R.styleable.PercentageChartView_pcv_textShadowDistY, 0);
+        builder.textShadowColor = attrs.getColor(R.styleable.PercentageChartView_pcv_textShadowColor, Color.TRANSPARENT);
+        if (builder.textShadowColor != Color.TRANSPARENT) {
+            builder.textShadowRadius = attrs.getFloat(R.styleable.PercentageChartView_pcv_textShadowRadius, 0);
+            builder.textShadowDistX = attrs.getFloat(R.styleable.PercentageChartView_pcv_textShadowDistX, 0);
+            builder.textShadowDistY = attrs.getFloat(R.styleable.PercentageChartView_pcv_textShadowDistY, 0);
         }
 
         //BACKGROUND OFFSET
-        mBackgroundOffset = attrs.getDimensionPixelSize(
+        builder.backgroundOffset = attrs.getDimensionPixelSize(
                 R.styleable.PercentageChartView_pcv_backgroundOffset,
                 0);
     }
 
-    private void initGradientColors(TypedArray attrs) {
+    // ONLY VALUES THAT ANIMATE ARE KEPT PER CHART, EVERYTHING ELSE IS READ FROM THE SHARED STYLE
+    void initStyle(ChartStyle style) {
+        mStyle = style;
+        mStartAngle = style.startAngle;
+        mBackgroundOffset = style.backgroundOffset;
+        mGradientAngle = style.gradientAngle;
+
+        mProgress = 0;
+        resetProgressState();
+    }
+
+    // STYLES ARE SHARED BETWEEN CHARTS, A SETTER BINDS THIS RENDERER TO A CHANGED COPY INSTEAD
+    ChartStyle.Builder editStyle() {
+        return mStyle.buildUpon();
+    }
+
+    @NonNull
+    public ChartStyle captureStyle() {
+        ChartStyle.Builder builder = mStyle.buildUpon();
+        captureStyle(builder);
+        return builder.build();
+    }
+
+    void captureStyle(ChartStyle.Builder builder) {
+        builder.startAngle = getStartAngle();
+        builder.backgroundOffset = mBackgroundOffset;
+        builder.gradientAngle = mGradientAngle;
+        builder.glyphTextEnabled = mGlyphTextEnabled;
+    }
+
+    private void readGradientColors(TypedArray attrs, ChartStyle.Builder builder) {
         //PROGRESS GRADIENT TYPE
-        mGradientType = attrs.getInt(R.styleable.PercentageChartView_pcv_gradientType, -1);
-        if (mGradientType == -1) return;
+        builder.gradientType = attrs.getInt(R.styleable.PercentageChartView_pcv_gradientType, -1);
+        builder.gradientAngle = (int) builder.startAngle;
+        if (builder.gradientType == -1) return;
 
         //ANGLE FOR LINEAR GRADIENT
-        mGradientAngle = attrs.getInt(R.styleable.PercentageChartView_pcv_gradientAngle, (int) mStartAngle);
+        builder.gradientAngle = attrs.getInt(R.styleable.PercentageChartView_pcv_gradientAngle, (int) builder.startAngle);
 
         //PROGRESS GRADIENT COLORS
         String gradientColors = attrs.getString(R.styleable.PercentageChartView_pcv_gradientColors);
         if (gradientColors != null) {
-            String[] colors = gradientColors.split(",");
-            mGradientColors = new int[colors.length];
-            try {
-                for (int i = 0; i < colors.length; i++) {
-                    mGradientColors[i] = Color.parseColor(colors[i].trim());
-                }
-            } catch (Exception e) {
-                throw new InflateException("pcv_gradientColors attribute contains invalid hex color values.");
-            }
+            builder.gradientColors = CompiledStyleCache.parseGradientColors(gradientColors);
         }
 
         //PROGRESS GRADIENT COLORS'S DISTRIBUTIONS
         String gradientDist = attrs.getString(R.styleable.PercentageChartView_pcv_gradientDistributions);
         if (gradientDist != null) {
-            String[] distributions = gradientDist.split(",");
-            mGradientDistributions = new float[distributions.length];
-            try {
-                for (int i = 0; i < distributions.length; i++) {
-                    mGradientDistributions[i] = Float.parseFloat(distributions[i].trim());
-                }
-            } catch (Exception e) {
-                throw new InflateException("pcv_gradientDistributions attribute contains invalid values.");
+            builder.gradientDistributions = CompiledStyleCache.parseGradientDistributions(gradientDist);
+        }
+    }
+
+    private void readColorStops(TypedArray attrs, ChartStyle.Builder builder) {
+        String colorStops = attrs.getString(R.styleable.PercentageChartView_pcv_colorStops);
+        if (colorStops == null) return;
+
+        String[] values = colorStops.split(",");
+        float[] stops = new float[values.length];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                stops[i] = Float.parseFloat(values[i].trim());
+            }
+        } catch (Exception e) {
+            throw new InflateException("pcv_colorStops attribute contains invalid values.");
+        }
+
+        int mode = attrs.getInt(R.styleable.PercentageChartView_pcv_colorStopMode, ColorStopProvider.MODE_STEP);
+        try {
+            builder.colorStops = new ColorStopProvider(stops, mode)
+                    .progressColors(parseStopColors(attrs, R.styleable.PercentageChartView_pcv_progressStopColors))
+                    .backgroundColors(parseStopColors(attrs, R.styleable.PercentageChartView_pcv_backgroundStopColors))
+                    .textColors(parseStopColors(attrs, R.styleable.PercentageChartView_pcv_textStopColors))
+                    .backgroundBarColors(parseStopColors(attrs, R.styleable.PercentageChartView_pcv_backgroundBarStopColors));
+        } catch (IllegalArgumentException e) {
+            throw new InflateException("pcv_colorStops attributes are inconsistent: " + e.getMessage());
+        }
+    }
+
+    @Nullable
+    private static int[] parseStopColors(TypedArray attrs, int index) {
+        String stopColors = attrs.getString(index);
+        if (stopColors == null) return null;
+
+        String[] values = stopColors.split(",");
+        int[] colors = new int[values.length];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                colors[i] = Color.parseColor(values[i].trim());
             }
+        } catch (Exception e) {
+            throw new InflateException("Stop colors attributes must contain valid hex color values.");
         }
+        return colors;
     }
 
     void setup() {
         mCircleBounds = new RectF();
         mBackgroundBounds = new RectF();
+
+        //PAINTS
+        mBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mProgressPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mTextMetrics = new Paint.FontMetrics();
+        // THE STYLED TEXT LAYOUT IS BOUND TO THE TEXT PAINT, IT IS RECREATED LAZILY WITH THE NEW ONE
+        mStyledText = null;
+        mStyledTextLayout = null;
+
+        //LAYERS THAT DO NOT CHANGE WITH PROGRESS
+        mStaticLayer = new StaticLayer();
+
+        //TEXT BUFFERS
+        mTextBuilder = new StringBuilder(TEXT_BUFFER_CAPACITY);
+        mTextChars = new char[TEXT_BUFFER_CAPACITY];
+
+        bindStyle();
+        bindDeferredStyle();
+    }
+
+    void bindStyle() {
         mProvidedProgressColor = mProvidedBackgroundColor = mProvidedTextColor = -1;
+        mAdaptiveColorProvider = null;
+        mColorTableResolution = 0;
+        mColorTableInterpolation = false;
+        invalidateColorTable();
+        mProvidedTextFormatter = null;
+        mProvidedTextAppender = null;
+        mGlyphTextEnabled = mDrawGlyphText = false;
+        mGeometryDirty = true;
 
         //BACKGROUND PAINT
-        mBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mBackgroundPaint.setColor(mBackgroundColor);
+        mBackgroundPaint.setColor(mStyle.backgroundColor);
+        mStaticLayer.invalidate();
 
         //PROGRESS PAINT
-        mProgressPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mProgressPaint.setColor(mProgressColor);
+        mAnimatedShader = null;
+        releaseGradientShader();
+        mProgressPaint.setShader(null);
+        mProgressPaint.setColor(mStyle.progressColor);
 
         //TEXT PAINT
-        mTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
-        mTextPaint.setTextAlign(Paint.Align.CENTER);
-        mTextPaint.setTextSize(mTextSize);
-        mTextPaint.setColor(mTextColor);
+        mTextPaint.setTextSize(mStyle.textSize);
+        mTextScale = 1;
+        mTextPaint.setColor(mStyle.textColor);
+        mTextPaint.setTypeface(mStyle.typeface);
+        if (mStyle.textShadowColor != Color.TRANSPARENT) {
+            mTextPaint.setShadowLayer(mStyle.textShadowRadius, mStyle.textShadowDistX, mStyle.textShadowDistY, mStyle.textShadowColor);
+        } else {
+            mTextPaint.clearShadowLayer();
+        }
+        updateText();
+    }
 
-        if (mTypeface != null) {
-            mTextPaint.setTypeface(mTypeface);
+    public void attach(IPercentageChartView view) {
+        mView = view;
+        setup();
+    }
+
+    //############################################################################################## LIFECYCLE
+    public void reset() {
+        ChartClock.getInstance().unregister(this);
+        if (mAnimator != null) {
+            mAnimator.end();
+            endShaderAnimation();
         }
-        if (mTextShadowColor != Color.TRANSPARENT) {
-            mTextPaint.setShadowLayer(mTextShadowRadius, mTextShadowDistX, mTextShadowDistY, mTextShadowColor);
+        cancelAnimatorRelease();
+        // THE DELAYED RELEASE NEVER RUNS WHILE DETACHED, A STATIC CHART DROPS ITS ANIMATOR RIGHT AWAY
+        if (mStyle.staticMode) {
+            releaseAnimator();
         }
+        mEditDepth = 0;
 
-        //TEXT LAYOUT
-        defaultTextFormatter = progress -> (int) progress + "%";
-        mTextEditor = Editable.Factory.getInstance().newEditable(defaultTextFormatter.provideFormattedText(mTextProgress));
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
-            mTextLayout = DynamicLayout.Builder.obtain(mTextEditor, mTextPaint, Integer.MAX_VALUE)
-                    .setAlignment(Layout.Alignment.ALIGN_NORMAL)
-                    .setLineSpacing(0, 0)
-                    .setJustificationMode(Layout.JUSTIFICATION_MODE_NONE)
-                    .setBreakStrategy(Layout.HYPHENATION_FREQUENCY_NONE)
-                    .setIncludePad(false)
-                    .build();
-        } else {
-            mTextLayout = new DynamicLayout(mTextEditor,
-                    mTextPaint,
-                    Integer.MAX_VALUE,
-                    Layout.Alignment.ALIGN_NORMAL,
-                    0, 0,
-                    false);
-        }
-
-        //ANIMATIONS
-        mProgressAnimator = ValueAnimator.ofFloat(0, mProgress);
-        mProgressAnimator.setDuration(mAnimDuration);
-        mProgressAnimator.setInterpolator(mAnimInterpolator);
-        mProgressAnimator.addUpdateListener(valueAnimator -> {
-            mProgress = (float) valueAnimator.getAnimatedValue();
-
-            if (mProgress > 0 && mProgress <= 100) {
-                mTextProgress = (int) mProgress;
-            } else if (mProgress > 100) {
-                mProgress = mTextProgress = 100;
-            } else {
-                mProgress = mTextProgress = 0;
-            }
+        // A DETACHED CHART MAY NEVER COME BACK, IT MUST NOT PIN ITS SHADER IN THE SHARED CACHE
+        releaseGradientShader();
+    }
 
-            updateDrawingAngles();
-            updateText();
+    public void rebind(IPercentageChartView view) {
+        mView = view;
+        if (mStyle.gradientType != -1 && mGradientShader == null && mAnimatedShader == null && !mCircleBounds.isEmpty()) {
+            updateGradientShader(mCircleBounds, mShaderAngle);
+        }
+        requestInvalidate();
+    }
 
-            mView.onProgressUpdated(mProgress);
-            mView.postInvalidateOnAnimation();
-        });
+    // COLOR STOPS AND GLYPH TEXT ARE APPLIED ONCE EVERY PAINT HAS BEEN BOUND
+    private void bindDeferredStyle() {
+        if (mStyle.colorStops != null) {
+            setAdaptiveColorProvider(mStyle.colorStops);
+        }
+        if (mStyle.glyphTextEnabled) {
+            setGlyphTextEnabled(true);
+        }
     }
 
-    public void attach(IPercentageChartView view) {
+    void rebind(IPercentageChartView view, ChartStyle style) {
         mView = view;
-        setup();
+        initStyle(style);
+        bindStyle();
+        bindDeferredStyle();
+    }
+
+    public void applyStyle(@NonNull ChartStyle style) {
+        float progress = mProgress;
+        if (mAnimator != null) {
+            mAnimator.cancel();
+        }
+        endShaderAnimation();
+        rebind(mView, style);
+        setProgress(progress, false);
+        requestGeometry();
     }
 
+    public abstract int getMode();
+
     //############################################################################################## INNER BEHAVIOR
-    public abstract void measure(int w, int h, int paddingLeft, int paddingTop, int paddingRight, int paddingBottom);
+    public void measure(int w, int h, int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
+        if (!mGeometryDirty
+                && mMeasureWidth == w && mMeasureHeight == h
+                && mPaddingLeft == paddingLeft && mPaddingTop == paddingTop
+                && mPaddingRight == paddingRight && mPaddingBottom == paddingBottom) return;
+
+        mMeasureWidth = w;
+        mMeasureHeight = h;
+        mPaddingLeft = paddingLeft;
+        mPaddingTop = paddingTop;
+        mPaddingRight = paddingRight;
+        mPaddingBottom = paddingBottom;
+        mGeometryDirty = false;
+        mPendingWork = 0;
+
+        int contentWidth = Math.max(0, w - paddingLeft - paddingRight);
+        int contentHeight = Math.max(0, h - paddingTop - paddingBottom);
+        measureGeometry(paddingLeft + contentWidth * 0.5f,
+                paddingTop + contentHeight * 0.5f,
+                Math.min(contentWidth, contentHeight));
+    }
+
+    abstract void measureGeometry(float centerX, float centerY, float diameter);
+
+    void remeasure() {
+        mGeometryDirty = true;
+        measure(mMeasureWidth, mMeasureHeight, mPaddingLeft, mPaddingTop, mPaddingRight, mPaddingBottom);
+    }
+
+    //EDIT TRANSACTIONS
+    public void beginEdit() {
+        mEditDepth++;
+    }
+
+    public void endEdit() {
+        if (mEditDepth == 0 || --mEditDepth > 0) return;
+        flushPendingWork();
+    }
+
+    public boolean isEditing() {
+        return mEditDepth > 0;
+    }
+
+    // STYLE SETTERS ONLY RECORD WHAT HAS TO BE REBUILT, SO THAT MANY OF THEM COST A SINGLE PASS
+    void requestGeometry() {
+        mGeometryDirty = true;
+        mPendingWork |= PENDING_GEOMETRY;
+    }
+
+    void requestShader() {
+        mPendingWork |= PENDING_SHADER;
+    }
+
+    void requestText() {
+        mPendingWork |= PENDING_TEXT;
+    }
+
+    // CHANGES MADE WITHIN AN EDIT ARE DRAWN ONCE THE EDIT IS APPLIED
+    void requestInvalidate() {
+        if (mEditDepth > 0) return;
+        mView.postInvalidate();
+    }
+
+    public void flushPendingWork() {
+        if (mPendingWork == 0 || mEditDepth > 0) return;
+        int pending = mPendingWork;
+        mPendingWork = 0;
+
+        // A GEOMETRY PASS REBUILDS THE SHADER AND THE TEXT ON ITS OWN
+        if ((pending & PENDING_GEOMETRY) != 0) {
+            remeasure();
+            return;
+        }
+        if ((pending & PENDING_SHADER) != 0) {
+            setupGradientColors(mCircleBounds);
+        }
+        if ((pending & PENDING_TEXT) != 0) {
+            updateText();
+        }
+    }
 
     public abstract void draw(Canvas canvas);
 
+    boolean hasStaticLayer() {
+        return false;
+    }
+
+    void drawStaticLayer(Canvas canvas) {
+    }
+
     void drawText(Canvas canvas) {
+        if (mTextScale != 1) {
+            canvas.save();
+            canvas.scale(mTextScale, mTextScale, mCircleBounds.centerX(), mCircleBounds.centerY());
+            drawTextContent(canvas);
+            canvas.restore();
+            return;
+        }
+        drawTextContent(canvas);
+    }
+
+    private void drawTextContent(Canvas canvas) {
+        if (mDrawGlyphText) {
+            mGlyphText.draw(canvas, mCircleBounds.centerX(), mCircleBounds.centerY(), mTextPaint);
+            return;
+        }
+
+        if (mDrawPlainText) {
+            float baseline = mCircleBounds.centerY() - (mTextMetrics.ascent + mTextMetrics.descent) / 2;
+            canvas.drawText(mTextChars, 0, mTextLength, mCircleBounds.centerX(), baseline, mTextPaint);
+            return;
+        }
+
         canvas.save();
         canvas.translate(mCircleBounds.centerX(), mCircleBounds.centerY() - (mTextLayout.getHeight() >> 1));
         mTextLayout.draw(canvas);
@@ -445,73 +719,168 @@ public abstract class BaseModeRenderer {
     }
 
     public void destroy() {
-        if (mProgressAnimator != null) {
-            if (mProgressAnimator.isRunning()) {
-                mProgressAnimator.cancel();
-            }
-            mProgressAnimator.removeAllUpdateListeners();
+        ChartClock.getInstance().unregister(this);
+        cancelAnimatorRelease();
+        if (mAnimator != null) {
+            mAnimator.cancel();
         }
 
-        if (mProgressColorAnimator != null) {
-            if (mProgressColorAnimator.isRunning()) {
-                mProgressColorAnimator.cancel();
+        mAnimator = null;
+        mStaticLayer = null;
+        mTextLayout = null;
+        mStyledText = null;
+        mStyledTextLayout = null;
+        mTextBuilder = null;
+        mTextChars = null;
+        mTextMetrics = null;
+        mTextMetricsTypeface = null;
+        mCircleBounds = mBackgroundBounds = null;
+        mBackgroundPaint = mProgressPaint = mTextPaint = null;
+        mAnimatedShader = null;
+        mAnimatedShaderBounds = null;
+        mShaderMatrix = null;
+        releaseGradientShader();
+        mAdaptiveColorProvider = null;
+        mColorTable = null;
+        mProvidedTextFormatter = null;
+        mProvidedTextAppender = null;
+    }
+
+    void updateText() {
+        if (mTextPaint != null) {
+            CharSequence text;
+            if (mProvidedTextFormatter != null) {
+                text = mProvidedTextFormatter.provideFormattedText(mTextProgress);
+            } else {
+                mTextBuilder.setLength(0);
+                if (mProvidedTextAppender != null) {
+                    mProvidedTextAppender.appendFormattedText(mTextBuilder, mTextProgress);
+                } else {
+                    appendPercent(mTextBuilder, mTextProgressUnits, mStyle.textPrecision);
+                }
+                text = mTextBuilder;
             }
-            mProgressColorAnimator.removeAllUpdateListeners();
-        }
 
-        if (mBackgroundColorAnimator != null) {
-            if (mBackgroundColorAnimator.isRunning()) {
-                mBackgroundColorAnimator.cancel();
+            if (mGlyphTextEnabled) {
+                mGlyphText.configure(mTextPaint);
+                mDrawGlyphText = mGlyphText.setText(text);
+                if (mDrawGlyphText) return;
             }
-            mBackgroundColorAnimator.removeAllUpdateListeners();
+
+            // PLAIN SINGLE LINE TEXT IS DRAWN DIRECTLY, ONLY STYLED OR MULTI-LINE TEXT NEEDS A LAYOUT
+            if (!(text instanceof Spanned) && TextUtils.indexOf(text, '\n') < 0) {
+                if (mTextMetricsSize != mTextPaint.getTextSize() || mTextMetricsTypeface != mTextPaint.getTypeface()) {
+                    mTextMetricsSize = mTextPaint.getTextSize();
+                    mTextMetricsTypeface = mTextPaint.getTypeface();
+                    mTextPaint.getFontMetrics(mTextMetrics);
+                }
+                mTextLength = text.length();
+                if (mTextLength > mTextChars.length) {
+                    mTextChars = new char[mTextLength];
+                }
+                TextUtils.getChars(text, 0, mTextLength, mTextChars, 0);
+                mDrawPlainText = true;
+                mTextLayout = null;
+                return;
+            }
+
+            mDrawPlainText = false;
+            mTextLayout = obtainTextLayout(text);
         }
+    }
 
-        if (mTextColorAnimator != null) {
-            if (mTextColorAnimator.isRunning()) {
-                mTextColorAnimator.cancel();
+    // STYLED OR MULTI-LINE TEXT, LAID OUT AGAINST THE RENDERER'S PAINT AND REFLOWED IN PLACE ON EVERY CHANGE
+    private Layout obtainTextLayout(CharSequence text) {
+        if (mStyledTextLayout == null) {
+            mStyledText = Editable.Factory.getInstance().newEditable(text);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                mStyledTextLayout = DynamicLayout.Builder.obtain(mStyledText, mTextPaint, Integer.MAX_VALUE)
+                        .setAlignment(Layout.Alignment.ALIGN_NORMAL)
+                        .setLineSpacing(0, 1)
+                        .setIncludePad(false)
+                        .build();
+            } else {
+                mStyledTextLayout = new DynamicLayout(mStyledText,
+                        mTextPaint,
+                        Integer.MAX_VALUE,
+                        Layout.Alignment.ALIGN_NORMAL,
+                        1, 0,
+                        false);
             }
-            mTextColorAnimator.removeAllUpdateListeners();
+            return mStyledTextLayout;
         }
 
-        mProgressAnimator = mProgressColorAnimator = mBackgroundColorAnimator = mTextColorAnimator = null;
-        mCircleBounds = mBackgroundBounds = null;
-        mBackgroundPaint = mProgressPaint = mTextPaint = null;
-        mGradientShader = null;
-        mAdaptiveColorProvider = null;
-        defaultTextFormatter = mProvidedTextFormatter = null;
+        mStyledText.clear();
+        mStyledText.append(text);
+        return mStyledTextLayout;
     }
 
-    void updateText() {
-        if (mTextEditor != null) {
-            CharSequence text = (mProvidedTextFormatter != null) ?
-                    mProvidedTextFormatter.provideFormattedText(mTextProgress) :
-                    defaultTextFormatter.provideFormattedText(mTextProgress);
-            mTextEditor.clear();
-            mTextEditor.append(text);
+    // DIGITS ARE WRITTEN ONE BY ONE SO THAT NO INTERMEDIATE STRING IS CREATED
+    static void appendPercent(StringBuilder out, int units, int decimals) {
+        if (units < 0) {
+            out.append('-');
+            units = -units;
         }
+
+        // DIGITS ARE APPENDED FROM THE LOWEST ONE AND REVERSED AFTERWARDS
+        int start = out.length();
+        int digits = 0;
+        do {
+            if (digits == decimals && decimals > 0) {
+                out.append('.');
+            }
+            out.append((char) ('0' + units % 10));
+            units /= 10;
+            digits++;
+        } while (units > 0 || digits <= decimals);
+
+        for (int i = start, j = out.length() - 1; i < j; i++, j--) {
+            char c = out.charAt(i);
+            out.setCharAt(i, out.charAt(j));
+            out.setCharAt(j, c);
+        }
+        out.append('%');
+    }
+
+    private boolean quantizeTextProgress() {
+        int scale = TEXT_PRECISION_SCALES[mStyle.textPrecision];
+        // ROUNDED, A TRUNCATED 0.29 * 100 WOULD READ 28
+        int units = Math.round(getProgress() * scale);
+        if (units == mTextProgressUnits) return false;
+        mTextProgressUnits = units;
+        mTextProgress = (float) units / scale;
+        return true;
+    }
+
+    private void resetProgressState() {
+        mReportSample = false;
+        mTextProgressUnits = Integer.MIN_VALUE;
+        quantizeTextProgress();
+        mGeometryProgress = mProgress;
     }
 
     abstract void updateDrawingAngles();
 
     void updateProvidedColors(float progress) {
         if (mAdaptiveColorProvider == null) return;
-        int providedProgressColor = mAdaptiveColorProvider.provideProgressColor(progress);
+        int providedProgressColor = provideColor(CHANNEL_PROGRESS_COLOR, progress);
 
-        if (providedProgressColor != -1 && providedProgressColor != mProvidedProgressColor && mGradientType == -1) {
+        if (providedProgressColor != -1 && providedProgressColor != mProvidedProgressColor && mStyle.gradientType == -1) {
             mProvidedProgressColor = providedProgressColor;
             mProgressPaint.setColor(mProvidedProgressColor);
         }
 
 
-        int providedBackgroundColor = mAdaptiveColorProvider.provideBackgroundColor(progress);
+        int providedBackgroundColor = provideColor(CHANNEL_BACKGROUND_COLOR, progress);
 
         if (providedBackgroundColor != -1 && providedBackgroundColor != mProvidedBackgroundColor) {
             mProvidedBackgroundColor = providedBackgroundColor;
             mBackgroundPaint.setColor(mProvidedBackgroundColor);
+            mStaticLayer.invalidate();
         }
 
 
-        int providedTextColor = mAdaptiveColorProvider.provideTextColor(progress);
+        int providedTextColor = provideColor(CHANNEL_TEXT_COLOR, progress);
 
         if (providedTextColor != -1 && providedTextColor != mProvidedTextColor) {
             mProvidedTextColor = providedTextColor;
@@ -519,140 +888,481 @@ public abstract class BaseModeRenderer {
         }
     }
 
-    void setupColorAnimations(){
-        if (mProgressColorAnimator == null) {
-            mProgressColorAnimator = ValueAnimator.ofObject(new ArgbEvaluator(), mProgressColor, mProvidedProgressColor);
-            mProgressColorAnimator.addUpdateListener(animation -> {
-                mProvidedProgressColor = (int) animation.getAnimatedValue();
-                mProgressPaint.setColor(mProvidedProgressColor);
-            });
-            mProgressColorAnimator.setDuration(mAnimDuration);
+    void updateAnimations(float progress) {
+        ChartAnimator animator = animator();
+        if (mStyle.extrapolateProgress) {
+            animator.extrapolateProgress(mProgress, progress);
+
+            // ONLY REAL SAMPLES ARE REPORTED, THE SWEEP ALONE MOVES BETWEEN THEM
+            mReportSample = true;
+            mSampleProgress = progress;
+            if (quantizeTextProgress()) {
+                updateText();
+                mFrameDirty = true;
+            }
+            mView.onProgressUpdated(progress);
+        } else {
+            animator.animateProgress(mProgress, progress);
+        }
+
+        // COLORS READ FROM A TABLE FOLLOW THE ANIMATED PROGRESS INSTEAD OF ANIMATING TOWARDS THE TARGET
+        if (mAdaptiveColorProvider == null || isColorTableEnabled()) return;
+
+        int providedProgressColor = provideColor(CHANNEL_PROGRESS_COLOR, progress);
+        if (providedProgressColor != -1 && providedProgressColor != mProvidedProgressColor && mStyle.gradientType == -1) {
+            int startColor = mProvidedProgressColor != -1 ? mProvidedProgressColor : mStyle.progressColor;
+            animator.animateColor(CHANNEL_PROGRESS_COLOR, startColor, providedProgressColor);
         }
 
-        if (mBackgroundColorAnimator == null) {
-            mBackgroundColorAnimator = ValueAnimator.ofObject(new ArgbEvaluator(), mBackgroundColor, mProvidedBackgroundColor);
-            mBackgroundColorAnimator.addUpdateListener(animation -> {
-                mProvidedBackgroundColor = (int) animation.getAnimatedValue();
-                mBackgroundPaint.setColor(mProvidedBackgroundColor);
-            });
-            mBackgroundColorAnimator.setDuration(mAnimDuration);
+        int providedBackgroundColor = provideColor(CHANNEL_BACKGROUND_COLOR, progress);
+        if (providedBackgroundColor != -1 && providedBackgroundColor != mProvidedBackgroundColor) {
+            int startColor = mProvidedBackgroundColor != -1 ? mProvidedBackgroundColor : mStyle.backgroundColor;
+            animator.animateColor(CHANNEL_BACKGROUND_COLOR, startColor, providedBackgroundColor);
         }
 
-        if (mTextColorAnimator == null) {
-            mTextColorAnimator = ValueAnimator.ofObject(new ArgbEvaluator(), mTextColor, mProvidedTextColor);
-            mTextColorAnimator.addUpdateListener(animation -> {
-                mProvidedTextColor = (int) animation.getAnimatedValue();
-                mTextPaint.setColor(mProvidedTextColor);
-            });
-            mTextColorAnimator.setDuration(mAnimDuration);
+        int providedTextColor = provideColor(CHANNEL_TEXT_COLOR, progress);
+        if (providedTextColor != -1 && providedTextColor != mProvidedTextColor) {
+            int startColor = mProvidedTextColor != -1 ? mProvidedTextColor : mStyle.textColor;
+            animator.animateColor(CHANNEL_TEXT_COLOR, startColor, providedTextColor);
         }
     }
 
-    void updateAnimations(float progress) {
-        mProgressAnimator.setFloatValues(mProgress, progress);
-        mProgressAnimator.start();
+    int provideColor(int channel, float progress) {
+        if (isColorTableEnabled()) {
+            if (mColorTable == null) {
+                mColorTable = new AdaptiveColorTable();
+            }
+            if (!mColorTable.isSampled()) {
+                mColorTable.sample(mAdaptiveColorProvider, mColorTableResolution);
+            }
+            return mColorTable.colorAt(channel, progress, mColorTableInterpolation);
+        }
 
-        if (mAdaptiveColorProvider == null) return;
+        switch (channel) {
+            case CHANNEL_PROGRESS_COLOR:
+                return mAdaptiveColorProvider.provideProgressColor(progress);
+            case CHANNEL_BACKGROUND_COLOR:
+                return mAdaptiveColorProvider.provideBackgroundColor(progress);
+            case CHANNEL_TEXT_COLOR:
+                return mAdaptiveColorProvider.provideTextColor(progress);
+            case CHANNEL_BACKGROUND_BAR_COLOR:
+                return mAdaptiveColorProvider.provideBackgroundBarColor(progress);
 
-        int providedProgressColor = mAdaptiveColorProvider.provideProgressColor(progress);
-        if (providedProgressColor != -1 && providedProgressColor != mProvidedProgressColor && mGradientType == -1) {
-            mProvidedProgressColor = providedProgressColor;
-            mProgressPaint.setColor(mProvidedProgressColor);
+            default:
+                return -1;
         }
+    }
 
-        int providedBackgroundColor = mAdaptiveColorProvider.provideBackgroundColor(progress);
-        if (providedBackgroundColor != -1 && providedBackgroundColor != mProvidedBackgroundColor) {
-            mProvidedBackgroundColor = providedBackgroundColor;
-            mBackgroundPaint.setColor(mProvidedBackgroundColor);
-        }
+    boolean isColorTableEnabled() {
+        return mColorTableResolution > 0;
+    }
 
-        int providedTextColor = mAdaptiveColorProvider.provideTextColor(progress);
-        if (providedTextColor != -1 && providedTextColor != mProvidedTextColor) {
-            mProvidedTextColor = providedTextColor;
-            mTextPaint.setColor(mProvidedTextColor);
+    void invalidateColorTable() {
+        if (mColorTable != null) {
+            mColorTable.invalidate();
         }
     }
 
     void cancelAnimations() {
-        if (mProgressAnimator.isRunning()) {
-            mProgressAnimator.cancel();
+        if (mAnimator != null) {
+            mAnimator.cancelProgress();
         }
+    }
 
-        if (mProgressColorAnimator != null && mProgressColorAnimator.isRunning()) {
-            mProgressColorAnimator.cancel();
+    // ALLOCATED ON THE FIRST ANIMATION, STATIC CHARTS DROP IT AGAIN ONCE IDLE
+    ChartAnimator animator() {
+        cancelAnimatorRelease();
+        if (mAnimator == null) {
+            mAnimator = new ChartAnimator(this);
         }
+        return mAnimator;
+    }
 
-        if (mBackgroundColorAnimator != null && mBackgroundColorAnimator.isRunning()) {
-            mBackgroundColorAnimator.cancel();
+    private void scheduleAnimatorRelease() {
+        if (!mStyle.staticMode || mAnimator == null || mView == null) return;
+        if (mAnimatorRelease == null) {
+            mAnimatorRelease = new Runnable() {
+                @Override
+                public void run() {
+                    mAnimatorRelease = null;
+                    releaseAnimator();
+                }
+            };
+        } else {
+            mView.removeCallbacks(mAnimatorRelease);
         }
+        mView.postDelayed(mAnimatorRelease, STATIC_MODE_IDLE_TIMEOUT);
+    }
+
+    private void releaseAnimator() {
+        if (mAnimator == null || mAnimator.isRunning()) return;
+        mAnimator = null;
+        if (mAnimatedShader == null) {
+            mAnimatedShaderBounds = null;
+            mShaderMatrix = null;
+        }
+    }
 
-        if (mTextColorAnimator != null && mTextColorAnimator.isRunning()) {
-            mTextColorAnimator.cancel();
+    private void cancelAnimatorRelease() {
+        if (mAnimatorRelease == null) return;
+        if (mView != null) {
+            mView.removeCallbacks(mAnimatorRelease);
         }
+        mAnimatorRelease = null;
+    }
+
+    void animateStyleProperty(int property, float from, float to) {
+        if (from == to) return;
+        if (property != PROPERTY_TEXT_SCALE && property != PROPERTY_BACKGROUND_OFFSET) {
+            beginShaderAnimation();
+        }
+        animator().animateProperty(property, from, to);
+    }
+
+    //############################################################################################## ANIMATION FRAMES
+    void onAnimatedProgress(float progress, boolean last) {
+        if (progress > 100) {
+            progress = 100;
+        } else if (progress < 0) {
+            progress = 0;
+        }
+        mProgress = progress;
+
+        // EACH STAGE ONLY RUNS WHEN ITS QUANTIZED INPUT CHANGED, THE LAST FRAME ALWAYS LANDS ON THE TARGET
+        boolean changed = false;
+        float sweepDelta = Math.abs(mProgress - mGeometryProgress) / DEFAULT_MAX * 360;
+        if (sweepDelta > 0 && (last || sweepDelta >= mStyle.minSweepDelta)) {
+            mGeometryProgress = mProgress;
+            updateDrawingAngles();
+            // SMOOTHED PROGRESS STARTS NO COLOR ANIMATION, PROVIDED COLORS FOLLOW IT FRAME BY FRAME
+            if (mAdaptiveColorProvider != null && (isColorTableEnabled() || mAnimator.isSmoothing())) {
+                updateProvidedColors(mProgress);
+            }
+            changed = true;
+        }
+
+        if (quantizeTextProgress()) {
+            updateText();
+            changed = true;
+        }
+
+        if (changed) {
+            mFrameDirty = true;
+            if (!mReportSample) {
+                mView.onProgressUpdated(mProgress);
+            }
+        }
+    }
+
+    void onAnimatedColor(int channel, int color) {
+        switch (channel) {
+            case CHANNEL_PROGRESS_COLOR:
+                mProvidedProgressColor = color;
+                mProgressPaint.setColor(color);
+                break;
+
+            case CHANNEL_BACKGROUND_COLOR:
+                mProvidedBackgroundColor = color;
+                mBackgroundPaint.setColor(color);
+                mStaticLayer.invalidate();
+                break;
+
+            case CHANNEL_TEXT_COLOR:
+                mProvidedTextColor = color;
+                mTextPaint.setColor(color);
+                break;
+        }
+    }
+
+    void onAnimatedProperty(int property, float value) {
+        switch (property) {
+            case PROPERTY_START_ANGLE:
+                setStartAngle(value);
+                break;
+
+            case PROPERTY_GRADIENT_ANGLE:
+                mGradientAngle = value;
+                if (mStyle.gradientType == GRADIENT_LINEAR) {
+                    updateGradientAngle(value);
+                }
+                break;
+
+            case PROPERTY_TEXT_SCALE:
+                mTextScale = value;
+                break;
+        }
+        mFrameDirty = true;
+    }
+
+    void startFrames() {
+        ChartClock.getInstance().register(this);
+    }
+
+    boolean onFrame(long frameTimeNanos) {
+        if (mAnimator == null) return false;
+        if (!mAnimator.isRunning()) {
+            scheduleAnimatorRelease();
+            return false;
+        }
+
+        boolean colorRunning = mAnimator.isColorRunning();
+        boolean running = mAnimator.tick(frameTimeNanos);
+        if (!mAnimator.isPropertyRunning()) {
+            endShaderAnimation();
+        }
+        if (mFrameDirty || colorRunning) {
+            mFrameDirty = false;
+            mView.postInvalidateOnAnimation();
+        }
+        if (!running) {
+            scheduleAnimatorRelease();
+        }
+        return running;
     }
 
     abstract void setupGradientColors(RectF bounds);
 
-    abstract void updateGradientAngle(float angle);
+    void updateGradientAngle(float angle) {
+        if (mStyle.gradientType == -1 || mStyle.gradientType == GRADIENT_RADIAL || (mGradientShader == null && mAnimatedShader == null)) return;
+        updateGradientShader(mCircleBounds, angle);
+    }
 
-    private int getThemeAccentColor() {
-        int colorAttr;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            colorAttr = android.R.attr.colorAccent;
-        } else {
-            colorAttr = mView.getViewContext().getResources().getIdentifier("colorAccent",
-                    "attr",
-                    mView.getViewContext().getPackageName()
-            );
+    void updateGradientShader(RectF bounds, float angle) {
+        if (mAnimatedShader != null) {
+            updateShaderMatrix(angle);
+            return;
         }
-        TypedValue outValue = new TypedValue();
-        mView.getViewContext().getTheme().resolveAttribute(colorAttr, outValue, true);
-        return outValue.data;
+
+        mShaderAngle = angle;
+        // ACQUIRE BEFORE RELEASING SO THAT AN UNCHANGED SHADER IS NOT DROPPED FROM THE CACHE IN BETWEEN
+        Shader shader = GradientShaderCache.acquire(mStyle.gradientType, mStyle.gradientColors, mStyle.gradientDistributions, bounds, angle);
+        releaseGradientShader();
+        mGradientShader = shader;
+        mProgressPaint.setShader(shader);
+    }
+
+    private void beginShaderAnimation() {
+        if (mAnimatedShader != null || mGradientShader == null) return;
+
+        if (mShaderMatrix == null) {
+            mAnimatedShaderBounds = new RectF();
+            mShaderMatrix = new Matrix();
+        }
+        mAnimatedShaderBounds.set(mCircleBounds);
+        mAnimatedShader = GradientShaderCache.create(mStyle.gradientType, mStyle.gradientColors, mStyle.gradientDistributions,
+                mCircleBounds.left, mCircleBounds.top, mCircleBounds.right, mCircleBounds.bottom);
+        releaseGradientShader();
+        mProgressPaint.setShader(mAnimatedShader);
+        updateShaderMatrix(mShaderAngle);
+    }
+
+    // MAPS THE PRIVATE SHADER FROM THE BOUNDS IT WAS CREATED WITH TO THE CURRENT ONES, THEN ROTATES IT
+    void updateShaderMatrix(float angle) {
+        if (mAnimatedShader == null) return;
+        mShaderAngle = angle;
+
+        RectF from = mAnimatedShaderBounds;
+        float scale = (from.width() > 0) ? mCircleBounds.width() / from.width() : 1;
+        mShaderMatrix.setScale(scale, scale, from.centerX(), from.centerY());
+        mShaderMatrix.postTranslate(mCircleBounds.centerX() - from.centerX(), mCircleBounds.centerY() - from.centerY());
+        mShaderMatrix.postRotate(angle, mCircleBounds.centerX(), mCircleBounds.centerY());
+        mAnimatedShader.setLocalMatrix(mShaderMatrix);
+    }
+
+    float getShaderAngle() {
+        return mShaderAngle;
+    }
+
+    private void endShaderAnimation() {
+        if (mAnimatedShader == null) return;
+        mAnimatedShader = null;
+        updateGradientShader(mCircleBounds, mShaderAngle);
+    }
+
+    void releaseGradientShader() {
+        if (mGradientShader != null) {
+            GradientShaderCache.release(mGradientShader);
+            mGradientShader = null;
+        }
+    }
+
+    private int getThemeAccentColor() {
+        return CompiledStyleCache.accentColor(mView.getViewContext());
     }
 
     //############################################################################################## MODIFIERS
     public abstract void setAdaptiveColorProvider(@Nullable AdaptiveColorProvider adaptiveColorProvider);
 
+    public void setAdaptiveColorTable(int resolution, boolean interpolate) {
+        if (this.mColorTableResolution == resolution && this.mColorTableInterpolation == interpolate) return;
+        this.mColorTableResolution = resolution;
+        this.mColorTableInterpolation = interpolate;
+        invalidateColorTable();
+
+        if (mAdaptiveColorProvider != null) {
+            updateProvidedColors(mProgress);
+            requestInvalidate();
+        }
+    }
+
     public void setTextFormatter(@Nullable ProgressTextFormatter textFormatter) {
         this.mProvidedTextFormatter = textFormatter;
-        updateText();
-        mView.postInvalidate();
+        this.mProvidedTextAppender = null;
+        requestText();
+        requestInvalidate();
+    }
+
+    public void setTextAppender(@Nullable ProgressTextAppender textAppender) {
+        this.mProvidedTextAppender = textAppender;
+        this.mProvidedTextFormatter = null;
+        requestText();
+        requestInvalidate();
+    }
+
+    //GLYPH TEXT
+    public boolean isGlyphTextEnabled() {
+        return mGlyphTextEnabled;
+    }
+
+    public void setGlyphTextEnabled(boolean enabled) {
+        if (this.mGlyphTextEnabled == enabled) return;
+        this.mGlyphTextEnabled = enabled;
+        if (enabled && mGlyphText == null) {
+            mGlyphText = new GlyphTextRenderer();
+        }
+        mDrawGlyphText = false;
+        requestText();
     }
 
     //PROGRESS
     public float getProgress() {
-        return mProgress;
+        return mReportSample ? mSampleProgress : mProgress;
     }
 
     public void setProgress(float progress, boolean animate) {
         if (this.mProgress == progress) return;
 
         cancelAnimations();
+        mReportSample = false;
 
         if (!animate) {
+            // A JUMP IS NOT A SAMPLE OF THE SAME TRAJECTORY
+            if (mAnimator != null) {
+                mAnimator.resetExtrapolation();
+            }
             this.mProgress = progress;
-            this.mTextProgress = (int) progress;
+            this.mGeometryProgress = progress;
 
             updateProvidedColors(progress);
             updateDrawingAngles();
-            updateText();
+            if (quantizeTextProgress()) {
+                updateText();
+            }
 
             mView.onProgressUpdated(mProgress);
-            mView.postInvalidate();
+            requestInvalidate();
             return;
         }
 
         updateAnimations(progress);
     }
 
+    // PROGRESS COMING FROM THE APP, FILTERED WHEN SMOOTHING IS ON INSTEAD OF CANCELING AND INVALIDATING
+    public void submitProgress(float progress, boolean animate) {
+        if (mStyle.smoothing == SMOOTHING_NONE) {
+            setProgress(progress, animate);
+            return;
+        }
+        if (!animate) {
+            // A JUMP IS NOT A READING OF THE SAME SIGNAL, THE FILTER STARTS OVER FROM IT
+            if (mAnimator != null) {
+                mAnimator.resetSmoothing();
+            }
+            setProgress(progress, false);
+            return;
+        }
+        animator().smoothProgress(mProgress, progress);
+    }
+
+    //TEXT PRECISION
+    @TextPrecision
+    public int getTextPrecision() {
+        return mStyle.textPrecision;
+    }
+
+    public void setTextPrecision(@TextPrecision int textPrecision) {
+        if (mStyle.textPrecision == textPrecision) return;
+        mStyle = editStyle().textPrecision(textPrecision).build();
+        mTextProgressUnits = Integer.MIN_VALUE;
+        quantizeTextProgress();
+        requestText();
+    }
+
+    //MINIMUM SWEEP DELTA
+    public float getMinSweepDelta() {
+        return mStyle.minSweepDelta;
+    }
+
+    public void setMinSweepDelta(float minSweepDelta) {
+        if (mStyle.minSweepDelta == minSweepDelta) return;
+        mStyle = editStyle().minSweepDelta(minSweepDelta).build();
+    }
+
+    //PROGRESS SMOOTHING
+    @ProgressSmoothing
+    public int getProgressSmoothing() {
+        return mStyle.smoothing;
+    }
+
+    public float getSmoothingCutoff() {
+        return mStyle.smoothingCutoff;
+    }
+
+    public float getSmoothingBeta() {
+        return mStyle.smoothingBeta;
+    }
+
+    public void setProgressSmoothing(@ProgressSmoothing int smoothing, float cutoff, float beta) {
+        mStyle = editStyle().progressSmoothing(smoothing, cutoff, beta).build();
+    }
+
+    //PROGRESS EXTRAPOLATION
+    public boolean isProgressExtrapolationEnabled() {
+        return mStyle.extrapolateProgress;
+    }
+
+    public void setProgressExtrapolationEnabled(boolean enabled) {
+        if (mStyle.extrapolateProgress == enabled) return;
+        mStyle = editStyle().progressExtrapolationEnabled(enabled).build();
+        if (mAnimator != null) {
+            mAnimator.resetExtrapolation();
+        }
+    }
+
+    //STATIC MODE
+    public boolean isStaticModeEnabled() {
+        return mStyle.staticMode;
+    }
+
+    public void setStaticModeEnabled(boolean enabled) {
+        if (mStyle.staticMode == enabled) return;
+        mStyle = editStyle().staticModeEnabled(enabled).build();
+        if (enabled) {
+            scheduleAnimatorRelease();
+        } else {
+            cancelAnimatorRelease();
+        }
+    }
+
     //DRAW BACKGROUND STATE
     public boolean isDrawBackgroundEnabled() {
-        return mDrawBackground;
+        return mStyle.drawBackground;
     }
 
     public void setDrawBackgroundEnabled(boolean drawBackground) {
-        if (this.mDrawBackground == drawBackground) return;
-        this.mDrawBackground = drawBackground;
+        if (mStyle.drawBackground == drawBackground) return;
+        mStyle = editStyle().drawBackgroundEnabled(drawBackground).build();
+        mStaticLayer.invalidate();
     }
 
     //START ANGLE
@@ -662,183 +1372,189 @@ public abstract class BaseModeRenderer {
 
     public abstract void setStartAngle(float startAngle);
 
+    public void setStartAngle(float startAngle, boolean animate) {
+        if (!animate) {
+            setStartAngle(startAngle);
+            return;
+        }
+        animateStyleProperty(PROPERTY_START_ANGLE, getStartAngle(), startAngle);
+    }
+
     //BACKGROUND COLOR
     public int getBackgroundColor() {
-        if (!mDrawBackground) return -1;
-        return mBackgroundColor;
+        if (!mStyle.drawBackground) return -1;
+        return mStyle.backgroundColor;
     }
 
     public void setBackgroundColor(int backgroundColor) {
-        if ((mAdaptiveColorProvider != null && mAdaptiveColorProvider.provideBackgroundColor(mProgress) != -1) || this.mBackgroundColor == backgroundColor)
+        if ((mAdaptiveColorProvider != null && provideColor(CHANNEL_BACKGROUND_COLOR, mProgress) != -1) || mStyle.backgroundColor == backgroundColor)
             return;
-        this.mBackgroundColor = backgroundColor;
-        if (!mDrawBackground) return;
-        mBackgroundPaint.setColor(mBackgroundColor);
+        mStyle = editStyle().backgroundColor(backgroundColor).build();
+        if (!mStyle.drawBackground) return;
+        mBackgroundPaint.setColor(backgroundColor);
+        mStaticLayer.invalidate();
     }
 
     //PROGRESS COLOR
     public int getProgressColor() {
-        return mProgressColor;
+        return mStyle.progressColor;
     }
 
     public void setProgressColor(int progressColor) {
-        if ((mAdaptiveColorProvider != null && mAdaptiveColorProvider.provideProgressColor(mProgress) != -1) || this.mProgressColor == progressColor)
+        if ((mAdaptiveColorProvider != null && provideColor(CHANNEL_PROGRESS_COLOR, mProgress) != -1) || mStyle.progressColor == progressColor)
             return;
 
-        this.mProgressColor = progressColor;
+        mStyle = editStyle().progressColor(progressColor).build();
         mProgressPaint.setColor(progressColor);
     }
 
     //GRADIENT COLORS
     public int getGradientType() {
-        return mGradientType;
+        return mStyle.gradientType;
     }
 
     public void setGradientColors(int type, int[] colors, float[] positions, float angle) {
-        mGradientType = type;
-        mGradientColors = colors;
-        mGradientDistributions = positions;
-        setupGradientColors(mCircleBounds);
-        if (mGradientType == GRADIENT_LINEAR && mGradientAngle != angle) {
-            mGradientAngle = angle;
-            updateGradientAngle(mGradientAngle);
-        }
-    }
-
-    public void setGradientColorsInternal(int type, int[] colors, float[] positions, float angle) {
-        mGradientType = type;
-        mGradientColors = colors;
-        mGradientDistributions = positions;
-        if (mGradientType == GRADIENT_LINEAR && mGradientAngle != angle) {
-            mGradientAngle = angle;
+        ChartStyle.Builder builder = editStyle();
+        builder.gradientType = type;
+        builder.gradientColors = (colors != null) ? colors.clone() : null;
+        builder.gradientDistributions = (positions != null) ? positions.clone() : null;
+        if (type == GRADIENT_LINEAR) {
+            mGradientAngle = builder.gradientAngle = angle;
         }
+        mStyle = builder.build();
+        requestShader();
     }
 
     public float getGradientAngle() {
         return mGradientAngle;
     }
 
+    public void setGradientAngle(float angle, boolean animate) {
+        if (!animate) {
+            mGradientAngle = angle;
+            if (mStyle.gradientType == GRADIENT_LINEAR) {
+                updateGradientAngle(angle);
+            }
+            return;
+        }
+        animateStyleProperty(PROPERTY_GRADIENT_ANGLE, mGradientAngle, angle);
+    }
+
     public int[] getGradientColors() {
-        return mGradientColors;
+        return mStyle.gradientColors;
     }
 
     public float[] getGradientDistributions() {
-        return mGradientDistributions;
+        return mStyle.gradientDistributions;
     }
 
     //ANIMATION DURATION
     public int getAnimationDuration() {
-        return mAnimDuration;
+        return mStyle.animDuration;
     }
 
     public void setAnimationDuration(int duration) {
-        if (this.mAnimDuration == duration) return;
-        mAnimDuration = duration;
-        mProgressAnimator.setDuration(mAnimDuration);
-        if (mProgressColorAnimator != null) {
-            mProgressColorAnimator.setDuration(mAnimDuration);
-        }
-        if (mBackgroundColorAnimator != null) {
-            mBackgroundColorAnimator.setDuration(mAnimDuration);
-        }
-        if (mTextColorAnimator != null) {
-            mTextColorAnimator.setDuration(mAnimDuration);
-        }
-        if (mBgBarColorAnimator != null) {
-            mBgBarColorAnimator.setDuration(mAnimDuration);
-        }
+        if (mStyle.animDuration == duration) return;
+        mStyle = editStyle().animationDuration(duration).build();
     }
 
     //ANIMATION INTERPOLATOR
     public TimeInterpolator getAnimationInterpolator() {
-        return mProgressAnimator.getInterpolator();
+        return mStyle.animInterpolator;
     }
 
     public void setAnimationInterpolator(TimeInterpolator interpolator) {
-        mProgressAnimator.setInterpolator(interpolator);
+        if (mStyle.animInterpolator == interpolator) return;
+        mStyle = editStyle().animationInterpolator(interpolator).build();
     }
 
     //TEXT COLOR
     public int getTextColor() {
-        return mTextColor;
+        return mStyle.textColor;
     }
 
     public void setTextColor(@ColorInt int textColor) {
-        if ((mAdaptiveColorProvider != null && mAdaptiveColorProvider.provideTextColor(mProgress) != -1) || this.mTextColor == textColor)
+        if ((mAdaptiveColorProvider != null && provideColor(CHANNEL_TEXT_COLOR, mProgress) != -1) || mStyle.textColor == textColor)
             return;
-        this.mTextColor = textColor;
+        mStyle = editStyle().textColor(textColor).build();
         mTextPaint.setColor(textColor);
     }
 
     //TEXT SIZE
     public float getTextSize() {
-        return mTextSize;
+        return mStyle.textSize;
     }
 
     public void setTextSize(float textSize) {
-        if (this.mTextSize == textSize) return;
-        this.mTextSize = textSize;
+        if (mStyle.textSize == textSize) return;
+        mStyle = editStyle().textSize(textSize).build();
         mTextPaint.setTextSize(textSize);
-        updateText();
+        requestText();
+    }
+
+    public void setTextSize(float textSize, boolean animate) {
+        if (!animate || mStyle.textSize == textSize) {
+            setTextSize(textSize);
+            return;
+        }
+
+        // TEXT IS LAID OUT ONCE AT THE TARGET SIZE AND SCALED WHILE DRAWING UNTIL THE ANIMATION ENDS
+        float from = mStyle.textSize * mTextScale;
+        setTextSize(textSize);
+        animateStyleProperty(PROPERTY_TEXT_SCALE, from / textSize, 1);
     }
 
     //TEXT TYPEFACE
     public Typeface getTypeface() {
-        return mTypeface;
+        return mStyle.typeface;
     }
 
     public void setTypeface(Typeface typeface) {
-        if (this.mTypeface != null && this.mTypeface.equals(typeface)) return;
-        this.mTypeface = (mTextStyle > 0) ?
-                Typeface.create(typeface, mTextStyle) :
-                typeface;
-        mTextPaint.setTypeface(mTypeface);
-        updateText();
+        if (mStyle.typeface != null && mStyle.typeface.equals(typeface)) return;
+        mStyle = editStyle().typeface(typeface).build();
+        mTextPaint.setTypeface(mStyle.typeface);
+        requestText();
     }
 
     //TEXT STYLE
     public int getTextStyle() {
-        return mTextStyle;
+        return mStyle.textStyle;
     }
 
-    public void setTextStyle(int mTextStyle) {
-        if (this.mTextStyle == mTextStyle) return;
-        this.mTextStyle = mTextStyle;
-        mTypeface = (mTypeface == null) ? Typeface.defaultFromStyle(mTextStyle) : Typeface.create(mTypeface, mTextStyle);
+    public void setTextStyle(int textStyle) {
+        if (mStyle.textStyle == textStyle) return;
+        mStyle = editStyle().textStyle(textStyle).build();
 
-        mTextPaint.setTypeface(mTypeface);
-        updateText();
+        mTextPaint.setTypeface(mStyle.typeface);
+        requestText();
     }
 
     //TEXT SHADOW
     public int getTextShadowColor() {
-        return mTextShadowColor;
+        return mStyle.textShadowColor;
     }
 
     public float getTextShadowRadius() {
-        return mTextShadowRadius;
+        return mStyle.textShadowRadius;
     }
 
     public float getTextShadowDistY() {
-        return mTextShadowDistY;
+        return mStyle.textShadowDistY;
     }
 
     public float getTextShadowDistX() {
-        return mTextShadowDistX;
+        return mStyle.textShadowDistX;
     }
 
     public void setTextShadow(int shadowColor, float shadowRadius, float shadowDistX, float shadowDistY) {
-        if (this.mTextShadowColor == shadowColor
-                && this.mTextShadowRadius == shadowRadius
-                && this.mTextShadowDistX == shadowDistX
-                && this.mTextShadowDistY == shadowDistY) return;
-        this.mTextShadowColor = shadowColor;
-        this.mTextShadowRadius = shadowRadius;
-        this.mTextShadowDistX = shadowDistX;
-        this.mTextShadowDistY = shadowDistY;
-
-        mTextPaint.setShadowLayer(mTextShadowRadius, mTextShadowDistX, mTextShadowDistY, mTextShadowColor);
-        updateText();
+        if (mStyle.textShadowColor == shadowColor
+                && mStyle.textShadowRadius == shadowRadius
+                && mStyle.textShadowDistX == shadowDistX
+                && mStyle.textShadowDistY == shadowDistY) return;
+        mStyle = editStyle().textShadow(shadowColor, shadowRadius, shadowDistX, shadowDistY).build();
+
+        mTextPaint.setShadowLayer(shadowRadius, shadowDistX, shadowDistY, shadowColor);
+        requestText();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.animation.ValueAnimator;
+import android.os.Build;
+
+/**
+ * Drives the progress value, the adaptive color channels and the animatable style properties of a
+ * renderer from a single tick of the {@link ChartClock}, using primitive fields only so that a
+ * running animation does not allocate.
+ */
+final class ChartAnimator {
+
+    // COLOR CHANNELS
+    static final int CHANNEL_PROGRESS_COLOR = 0;
+    static final int CHANNEL_BACKGROUND_COLOR = 1;
+    static final int CHANNEL_TEXT_COLOR = 2;
+    static final int CHANNEL_BACKGROUND_BAR_COLOR = 3;
+    private static final int CHANNEL_COUNT = 4;
+
+    // STYLE PROPERTIES
+    static final int PROPERTY_START_ANGLE = 0;
+    static final int PROPERTY_GRADIENT_ANGLE = 1;
+    static final int PROPERTY_TEXT_SCALE = 2;
+    static final int PROPERTY_BACKGROUND_OFFSET = 3;
+    static final int PROPERTY_PROGRESS_BAR_THICKNESS = 4;
+    static final int PROPERTY_BACKGROUND_BAR_THICKNESS = 5;
+    private static final int PROPERTY_COUNT = 6;
+
+    private static final long NOT_STARTED = -1;
+
+    private static final float RATE_SMOOTHING = .5f;
+
+    // SMOOTHING, THE DERIVATIVE CUTOFF IS THE ONE EURO FILTER'S USUAL 1HZ
+    private static final float DERIVATIVE_CUTOFF = 1f;
+    private static final float SMOOTHING_EPSILON = .01f;
+
+    private final BaseModeRenderer mRenderer;
+
+    // PROGRESS
+    private boolean mProgressRunning;
+    private float mProgressFrom;
+    private float mProgressTo;
+    private long mProgressStartTime;
+
+    // EXTRAPOLATED PROGRESS
+    private boolean mExtrapolating;
+    private long mSampleTime = NOT_STARTED;
+    // THE SAMPLE'S ARRIVAL TIME ONLY MEASURES THE RATE, FRAMES ARE TIMED FROM THE FIRST VSYNC AFTER IT
+    private long mSampleFrameTime;
+    private float mRate;
+    private long mHorizon;
+    private float mCorrection;
+    private boolean mRising;
+    private float mFloor;
+
+    // SMOOTHED PROGRESS
+    private boolean mSmoothing;
+    private float mSmoothedProgress;
+    private float mSmoothedDerivative;
+    private long mSmoothingTime;
+
+    // COLORS
+    private final int[] mColorFrom;
+    private final int[] mColorTo;
+    private final long[] mColorStartTime;
+    private int mRunningColors;
+
+    // STYLE PROPERTIES
+    private final float[] mPropertyFrom;
+    private final float[] mPropertyTo;
+    private final long[] mPropertyStartTime;
+    private int mRunningProperties;
+
+    ChartAnimator(BaseModeRenderer renderer) {
+        mRenderer = renderer;
+        mColorFrom = new int[CHANNEL_COUNT];
+        mColorTo = new int[CHANNEL_COUNT];
+        mColorStartTime = new long[CHANNEL_COUNT];
+        mPropertyFrom = new float[PROPERTY_COUNT];
+        mPropertyTo = new float[PROPERTY_COUNT];
+        mPropertyStartTime = new long[PROPERTY_COUNT];
+    }
+
+    void animateProgress(float from, float to) {
+        mProgressFrom = from;
+        mProgressTo = to;
+        mProgressStartTime = NOT_STARTED;
+        mExtrapolating = false;
+        mSmoothing = false;
+        mProgressRunning = true;
+        mRenderer.startFrames();
+    }
+
+    // DEAD RECKONING, PROGRESS KEEPS MOVING AT THE ESTIMATED RATE UNTIL THE NEXT SAMPLE ARRIVES
+    void extrapolateProgress(float from, float to) {
+        long now = System.nanoTime() / 1_000_000;
+        if (mSampleTime != NOT_STARTED && now > mSampleTime) {
+            long interval = now - mSampleTime;
+            float rate = Math.max(0, (to - mProgressTo) / interval);
+            // SMOOTHED SO THAT ONE EARLY OR LATE SAMPLE DOES NOT JERK THE SWEEP
+            mRate = (mRate == 0) ? rate : mRate + (rate - mRate) * RATE_SMOOTHING;
+            // NO FURTHER THAN WHERE THE NEXT SAMPLE IS EXPECTED
+            mHorizon = interval;
+        }
+
+        // A RISING SOURCE NEVER PULLS THE SWEEP BACK, IT WAITS FOR THE NEW TRAJECTORY TO CATCH UP INSTEAD
+        mRising = (mSampleTime != NOT_STARTED) ? to >= mProgressTo : to >= from;
+        mFloor = from;
+
+        // OTHERWISE THE GAP BETWEEN WHAT IS DRAWN AND THE NEW TRAJECTORY FADES OUT INSTEAD OF JUMPING
+        mCorrection = mRising ? Math.min(0, from - to) : from - to;
+        mProgressTo = to;
+        mSampleTime = now;
+        mSampleFrameTime = NOT_STARTED;
+        mExtrapolating = true;
+        mSmoothing = false;
+        mProgressRunning = true;
+        mRenderer.startFrames();
+    }
+
+    // ONLY MOVES THE TARGET, THE FILTER RUNS ONCE PER FRAME ON WHATEVER VALUE CAME IN LAST
+    void smoothProgress(float from, float to) {
+        if (!mProgressRunning || !mSmoothing) {
+            mSmoothedProgress = from;
+            mSmoothedDerivative = 0;
+            mSmoothingTime = NOT_STARTED;
+            mExtrapolating = false;
+            mSmoothing = true;
+            mProgressRunning = true;
+        }
+        mProgressTo = to;
+        mRenderer.startFrames();
+    }
+
+    void resetSmoothing() {
+        if (!mSmoothing) return;
+        mSmoothing = false;
+        mProgressRunning = false;
+    }
+
+    void resetExtrapolation() {
+        mExtrapolating = false;
+        mSampleTime = NOT_STARTED;
+        mRate = 0;
+        mHorizon = 0;
+    }
+
+    void animateColor(int channel, int from, int to) {
+        mColorFrom[channel] = from;
+        mColorTo[channel] = to;
+        mColorStartTime[channel] = NOT_STARTED;
+        mRunningColors |= 1 << channel;
+        mRenderer.startFrames();
+    }
+
+    void animateProperty(int property, float from, float to) {
+        mPropertyFrom[property] = from;
+        mPropertyTo[property] = to;
+        mPropertyStartTime[property] = NOT_STARTED;
+        mRunningProperties |= 1 << property;
+        mRenderer.startFrames();
+    }
+
+    boolean isRunning() {
+        return mProgressRunning || mRunningColors != 0 || mRunningProperties != 0;
+    }
+
+    // STILL TRUE ON THE FRAME THAT SETTLES, UNTIL ANOTHER KIND OF PROGRESS ANIMATION STARTS
+    boolean isSmoothing() {
+        return mSmoothing;
+    }
+
+    boolean isPropertyRunning() {
+        return mRunningProperties != 0;
+    }
+
+    boolean isColorRunning() {
+        return mRunningColors != 0;
+    }
+
+    void cancelColorAnimations() {
+        mRunningColors = 0;
+    }
+
+    void cancelProgress() {
+        mProgressRunning = false;
+        mRunningColors = 0;
+    }
+
+    void cancel() {
+        mProgressRunning = false;
+        mRunningColors = 0;
+        mRunningProperties = 0;
+    }
+
+    void end() {
+        if (mProgressRunning) {
+            mProgressRunning = false;
+            mRenderer.onAnimatedProgress(mProgressTo, true);
+        }
+
+        for (int channel = 0; channel < CHANNEL_COUNT && mRunningColors != 0; channel++) {
+            if ((mRunningColors & (1 << channel)) == 0) continue;
+            mRunningColors &= ~(1 << channel);
+            mRenderer.onAnimatedColor(channel, mColorTo[channel]);
+        }
+
+        for (int property = 0; property < PROPERTY_COUNT && mRunningProperties != 0; property++) {
+            if ((mRunningProperties & (1 << property)) == 0) continue;
+            mRunningProperties &= ~(1 << property);
+            mRenderer.onAnimatedProperty(property, mPropertyTo[property]);
+        }
+    }
+
+    boolean tick(long frameTimeNanos) {
+        long frameTime = frameTimeNanos / 1_000_000;
+
+        //PROGRESS
+        if (mProgressRunning && mSmoothing) {
+            tickSmoothing(frameTime);
+        } else if (mProgressRunning && mExtrapolating) {
+            tickExtrapolation(frameTime);
+        } else if (mProgressRunning) {
+            if (mProgressStartTime == NOT_STARTED) {
+                mProgressStartTime = frameTime;
+            }
+            float fraction = getFraction(frameTime, mProgressStartTime);
+            if (fraction >= 1f) {
+                mProgressRunning = false;
+            }
+            float interpolated = mRenderer.mStyle.animInterpolator.getInterpolation(fraction);
+            mRenderer.onAnimatedProgress(mProgressFrom + (mProgressTo - mProgressFrom) * interpolated, !mProgressRunning);
+        }
+
+        //COLORS
+        for (int channel = 0; channel < CHANNEL_COUNT && mRunningColors != 0; channel++) {
+            if ((mRunningColors & (1 << channel)) == 0) continue;
+
+            if (mColorStartTime[channel] == NOT_STARTED) {
+                mColorStartTime[channel] = frameTime;
+            }
+            float fraction = getFraction(frameTime, mColorStartTime[channel]);
+            if (fraction >= 1f) {
+                mRunningColors &= ~(1 << channel);
+            }
+            mRenderer.onAnimatedColor(channel, blendArgb(mColorFrom[channel], mColorTo[channel], fraction));
+        }
+
+        //STYLE PROPERTIES
+        for (int property = 0; property < PROPERTY_COUNT && mRunningProperties != 0; property++) {
+            if ((mRunningProperties & (1 << property)) == 0) continue;
+
+            if (mPropertyStartTime[property] == NOT_STARTED) {
+                mPropertyStartTime[property] = frameTime;
+            }
+            float fraction = getFraction(frameTime, mPropertyStartTime[property]);
+            if (fraction >= 1f) {
+                mRunningProperties &= ~(1 << property);
+            }
+            float interpolated = mRenderer.mStyle.animInterpolator.getInterpolation(fraction);
+            mRenderer.onAnimatedProperty(property, mPropertyFrom[property] + (mPropertyTo[property] - mPropertyFrom[property]) * interpolated);
+        }
+
+        return isRunning();
+    }
+
+    private void tickExtrapolation(long frameTime) {
+        if (mSampleFrameTime == NOT_STARTED) {
+            mSampleFrameTime = frameTime;
+        }
+        long elapsed = Math.max(0, frameTime - mSampleFrameTime);
+        float fraction = getFraction(frameTime, mSampleFrameTime);
+
+        // NEVER PAST THE HORIZON, SO A STALLED SOURCE DOES NOT RUN THE SWEEP AWAY FROM ITS LAST SAMPLE
+        float progress = mProgressTo + mRate * Math.min(elapsed, mHorizon);
+        progress += mCorrection * (1f - mRenderer.mStyle.animInterpolator.getInterpolation(fraction));
+        if (mRising) {
+            progress = Math.max(progress, mFloor);
+            mFloor = progress;
+        }
+        progress = Math.min(progress, BaseModeRenderer.DEFAULT_MAX);
+
+        if (fraction >= 1f && elapsed >= mHorizon) {
+            mProgressRunning = false;
+        }
+        mRenderer.onAnimatedProgress(progress, !mProgressRunning);
+    }
+
+    private void tickSmoothing(long frameTime) {
+        if (mSmoothingTime == NOT_STARTED) {
+            mSmoothingTime = frameTime;
+            return;
+        }
+        float dt = (frameTime - mSmoothingTime) / 1000f;
+        if (dt <= 0) return;
+        mSmoothingTime = frameTime;
+
+        float cutoff = mRenderer.mStyle.smoothingCutoff;
+        if (mRenderer.mStyle.smoothing == BaseModeRenderer.SMOOTHING_ONE_EURO) {
+            // FAST CHANGES RAISE THE CUTOFF TO CUT LAG, SLOW ONES LOWER IT TO CUT JITTER
+            float derivative = (mProgressTo - mSmoothedProgress) / dt;
+            mSmoothedDerivative += (derivative - mSmoothedDerivative) * smoothingFactor(DERIVATIVE_CUTOFF, dt);
+            cutoff += mRenderer.mStyle.smoothingBeta * Math.abs(mSmoothedDerivative);
+        }
+        mSmoothedProgress += (mProgressTo - mSmoothedProgress) * smoothingFactor(cutoff, dt);
+
+        if (Math.abs(mProgressTo - mSmoothedProgress) < SMOOTHING_EPSILON) {
+            mSmoothedProgress = mProgressTo;
+            mProgressRunning = false;
+        }
+        mRenderer.onAnimatedProgress(mSmoothedProgress, !mProgressRunning);
+    }
+
+    private static float smoothingFactor(float cutoff, float dt) {
+        float tau = (float) (1 / (2 * Math.PI * cutoff));
+        return 1 / (1 + tau / dt);
+    }
+
+    private float getFraction(long frameTime, long startTime) {
+        float duration = mRenderer.mStyle.animDuration;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            duration *= ValueAnimator.getDurationScale();
+        }
+        if (duration <= 0) return 1f;
+        return Math.max(0f, Math.min(1f, (frameTime - startTime) / duration));
+    }
+
+    static int blendArgb(int from, int to, float fraction) {
+        int a = (from >>> 24) + (int) (((to >>> 24) - (from >>> 24)) * fraction);
+        int r = ((from >> 16) & 0xFF) + (int) ((((to >> 16) & 0xFF) - ((from >> 16) & 0xFF)) * fraction);
+        int g = ((from >> 8) & 0xFF) + (int) ((((to >> 8) & 0xFF) - ((from >> 8) & 0xFF)) * fraction);
+        int b = (from & 0xFF) + (int) (((to & 0xFF) - (from & 0xFF)) * fraction);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.view.Choreographer;
+
+import java.util.Arrays;
+
+/**
+ * Process-wide frame clock. Every renderer with running animations registers here and is ticked
+ * once per vsync from a single Choreographer callback, with the same frame time for all of them.
+ * Must only be used from the main thread.
+ */
+final class ChartClock implements Choreographer.FrameCallback {
+
+    static final int NOT_REGISTERED = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static ChartClock sInstance;
+
+    private BaseModeRenderer[] mRenderers;
+    private int mCount;
+    private int mRemovedWhileDispatching;
+    private boolean mDispatching;
+    private boolean mFrameScheduled;
+
+    private ChartClock() {
+        mRenderers = new BaseModeRenderer[INITIAL_CAPACITY];
+    }
+
+    static ChartClock getInstance() {
+        if (sInstance == null) {
+            sInstance = new ChartClock();
+        }
+        return sInstance;
+    }
+
+    void register(BaseModeRenderer renderer) {
+        if (renderer.mClockIndex != NOT_REGISTERED) return;
+
+        if (mCount == mRenderers.length) {
+            mRenderers = Arrays.copyOf(mRenderers, mCount * 2);
+        }
+        renderer.mClockIndex = mCount;
+        mRenderers[mCount++] = renderer;
+        scheduleFrame();
+    }
+
+    void unregister(BaseModeRenderer renderer) {
+        int index = renderer.mClockIndex;
+        if (index == NOT_REGISTERED) return;
+        renderer.mClockIndex = NOT_REGISTERED;
+
+        if (mDispatching) {
+            // KEEP SLOTS STABLE WHILE TICKING, HOLES ARE COMPACTED AT THE END OF THE FRAME
+            mRenderers[index] = null;
+            mRemovedWhileDispatching++;
+            return;
+        }
+
+        int last = --mCount;
+        if (index != last) {
+            BaseModeRenderer moved = mRenderers[last];
+            mRenderers[index] = moved;
+            moved.mClockIndex = index;
+        }
+        mRenderers[last] = null;
+
+        if (mCount == 0) {
+            unscheduleFrame();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameScheduled = false;
+        mDispatching = true;
+
+        // RENDERERS REGISTERED DURING THIS FRAME GET THEIR FIRST TICK ON THE NEXT ONE
+        int count = mCount;
+        for (int i = 0; i < count; i++) {
+            BaseModeRenderer renderer = mRenderers[i];
+            if (renderer != null && !renderer.onFrame(frameTimeNanos) && renderer.mClockIndex == i) {
+                unregister(renderer);
+            }
+        }
+
+        mDispatching = false;
+        if (mRemovedWhileDispatching > 0) {
+            compact();
+        }
+
+        if (mCount > 0) {
+            scheduleFrame();
+        }
+    }
+
+    private void compact() {
+        int target = 0;
+        for (int i = 0; i < mCount; i++) {
+            BaseModeRenderer renderer = mRenderers[i];
+            if (renderer == null) continue;
+            renderer.mClockIndex = target;
+            mRenderers[target++] = renderer;
+        }
+        Arrays.fill(mRenderers, target, mCount, null);
+        mCount = target;
+        mRemovedWhileDispatching = 0;
+    }
+
+    private void scheduleFrame() {
+        if (mFrameScheduled) return;
+        mFrameScheduled = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void unscheduleFrame() {
+        if (!mFrameScheduled) return;
+        mFrameScheduled = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+}
@@ -0,0 +1,620 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.animation.TimeInterpolator;
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.animation.LinearInterpolator;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ramijemli.percentagechartview.annotation.ChartMode;
+import com.ramijemli.percentagechartview.annotation.GradientTypes;
+import com.ramijemli.percentagechartview.annotation.ProgressBarStyle;
+import com.ramijemli.percentagechartview.annotation.ProgressOrientation;
+import com.ramijemli.percentagechartview.annotation.ProgressSmoothing;
+import com.ramijemli.percentagechartview.annotation.TextPrecision;
+import com.ramijemli.percentagechartview.annotation.TextStyle;
+import com.ramijemli.percentagechartview.callback.ColorStopProvider;
+
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.DEFAULT_ANIMATION_DURATION;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.DEFAULT_SMOOTHING_BETA;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.DEFAULT_SMOOTHING_CUTOFF;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.DEFAULT_START_ANGLE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.DEFAULT_TEXT_SP_SIZE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.GRADIENT_LINEAR;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.GRADIENT_SWEEP;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_FILL;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_PIE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_RING;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.ORIENTATION_CLOCKWISE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.ORIENTATION_COUNTERCLOCKWISE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.SMOOTHING_NONE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.SMOOTHING_ONE_EURO;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.TEXT_PRECISION_INTEGER;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.TEXT_PRECISION_TWO_DECIMALS;
+import static com.ramijemli.percentagechartview.renderer.RingModeRenderer.CAP_ROUND;
+import static com.ramijemli.percentagechartview.renderer.RingModeRenderer.CAP_SQUARE;
+import static com.ramijemli.percentagechartview.renderer.RingModeRenderer.DEFAULT_BG_BAR_DP_WIDTH;
+import static com.ramijemli.percentagechartview.renderer.RingModeRenderer.DEFAULT_PROGRESS_BAR_DP_WIDTH;
+
+/**
+ * Immutable look of a chart, shared by every chart created from it. Renderers read their look from
+ * the style they are bound to and a setter binds the chart to a changed copy, while progress,
+ * animated values and bounds stay per chart. Ring-only values are ignored by the other modes.
+ */
+public final class ChartStyle {
+
+    @ChartMode
+    final int mode;
+    @ProgressOrientation
+    final int orientation;
+    final float startAngle;
+
+    final boolean drawBackground;
+    final int backgroundColor;
+    final int backgroundOffset;
+
+    final int progressColor;
+    final int gradientType;
+    final int[] gradientColors;
+    final float[] gradientDistributions;
+    final float gradientAngle;
+    @Nullable
+    final ColorStopProvider colorStops;
+
+    final int animDuration;
+    final TimeInterpolator animInterpolator;
+
+    final int textColor;
+    final float textSize;
+    @Nullable
+    final Typeface typeface;
+    final int textStyle;
+    final int textShadowColor;
+    final float textShadowRadius;
+    final float textShadowDistX;
+    final float textShadowDistY;
+    final int textPrecision;
+    final float minSweepDelta;
+    final boolean staticMode;
+    final boolean extrapolateProgress;
+    // SMOOTHING, CUTOFF IN HZ AND BETA IN HZ PER PERCENT PER SECOND
+    final int smoothing;
+    final float smoothingCutoff;
+    final float smoothingBeta;
+    final boolean glyphTextEnabled;
+
+    final boolean drawBackgroundBar;
+    final int backgroundBarColor;
+    final float backgroundBarThickness;
+    final float progressBarThickness;
+    final int progressBarStyle;
+
+    private ChartStyle(Builder builder) {
+        mode = builder.mode;
+        orientation = builder.orientation;
+        startAngle = builder.startAngle;
+        drawBackground = builder.drawBackground;
+        backgroundColor = builder.backgroundColor;
+        backgroundOffset = builder.backgroundOffset;
+        progressColor = builder.progressColor;
+        gradientType = builder.gradientType;
+        gradientColors = builder.gradientColors;
+        gradientDistributions = builder.gradientDistributions;
+        gradientAngle = builder.gradientAngle;
+        colorStops = builder.colorStops;
+        animDuration = builder.animDuration;
+        animInterpolator = builder.animInterpolator;
+        textColor = builder.textColor;
+        textSize = builder.textSize;
+        typeface = builder.typeface;
+        textStyle = builder.textStyle;
+        textShadowColor = builder.textShadowColor;
+        textShadowRadius = builder.textShadowRadius;
+        textShadowDistX = builder.textShadowDistX;
+        textShadowDistY = builder.textShadowDistY;
+        textPrecision = builder.textPrecision;
+        minSweepDelta = builder.minSweepDelta;
+        staticMode = builder.staticMode;
+        extrapolateProgress = builder.extrapolateProgress;
+        smoothing = builder.smoothing;
+        smoothingCutoff = builder.smoothingCutoff;
+        smoothingBeta = builder.smoothingBeta;
+        glyphTextEnabled = builder.glyphTextEnabled;
+        drawBackgroundBar = builder.drawBackgroundBar;
+        backgroundBarColor = builder.backgroundBarColor;
+        backgroundBarThickness = builder.backgroundBarThickness;
+        progressBarThickness = builder.progressBarThickness;
+        progressBarStyle = builder.progressBarStyle;
+    }
+
+    @ChartMode
+    public int getMode() {
+        return mode;
+    }
+
+    @ProgressOrientation
+    public int getOrientation() {
+        return orientation;
+    }
+
+    public float getStartAngle() {
+        return startAngle;
+    }
+
+    public boolean isDrawBackgroundEnabled() {
+        return drawBackground;
+    }
+
+    public int getBackgroundColor() {
+        return backgroundColor;
+    }
+
+    public int getBackgroundOffset() {
+        return backgroundOffset;
+    }
+
+    public int getProgressColor() {
+        return progressColor;
+    }
+
+    public int getGradientType() {
+        return gradientType;
+    }
+
+    @Nullable
+    public int[] getGradientColors() {
+        return (gradientColors != null) ? gradientColors.clone() : null;
+    }
+
+    @Nullable
+    public float[] getGradientDistributions() {
+        return (gradientDistributions != null) ? gradientDistributions.clone() : null;
+    }
+
+    public float getGradientAngle() {
+        return gradientAngle;
+    }
+
+    @Nullable
+    public ColorStopProvider getColorStops() {
+        return colorStops;
+    }
+
+    public int getAnimationDuration() {
+        return animDuration;
+    }
+
+    public TimeInterpolator getAnimationInterpolator() {
+        return animInterpolator;
+    }
+
+    public int getTextColor() {
+        return textColor;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    @Nullable
+    public Typeface getTypeface() {
+        return typeface;
+    }
+
+    public int getTextStyle() {
+        return textStyle;
+    }
+
+    public int getTextShadowColor() {
+        return textShadowColor;
+    }
+
+    public float getTextShadowRadius() {
+        return textShadowRadius;
+    }
+
+    public float getTextShadowDistX() {
+        return textShadowDistX;
+    }
+
+    public float getTextShadowDistY() {
+        return textShadowDistY;
+    }
+
+    @TextPrecision
+    public int getTextPrecision() {
+        return textPrecision;
+    }
+
+    public float getMinSweepDelta() {
+        return minSweepDelta;
+    }
+
+    public boolean isStaticModeEnabled() {
+        return staticMode;
+    }
+
+    public boolean isProgressExtrapolationEnabled() {
+        return extrapolateProgress;
+    }
+
+    @ProgressSmoothing
+    public int getProgressSmoothing() {
+        return smoothing;
+    }
+
+    public float getSmoothingCutoff() {
+        return smoothingCutoff;
+    }
+
+    public float getSmoothingBeta() {
+        return smoothingBeta;
+    }
+
+    public boolean isGlyphTextEnabled() {
+        return glyphTextEnabled;
+    }
+
+    public boolean isDrawBackgroundBarEnabled() {
+        return drawBackgroundBar;
+    }
+
+    public int getBackgroundBarColor() {
+        return backgroundBarColor;
+    }
+
+    public float getBackgroundBarThickness() {
+        return backgroundBarThickness;
+    }
+
+    public float getProgressBarThickness() {
+        return progressBarThickness;
+    }
+
+    @ProgressBarStyle
+    public int getProgressBarStyle() {
+        return progressBarStyle;
+    }
+
+    @NonNull
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    public static final class Builder {
+
+        int mode;
+        int orientation;
+        float startAngle;
+        boolean drawBackground;
+        int backgroundColor;
+        int backgroundOffset;
+        int progressColor;
+        int gradientType;
+        int[] gradientColors;
+        float[] gradientDistributions;
+        float gradientAngle;
+        ColorStopProvider colorStops;
+        int animDuration;
+        TimeInterpolator animInterpolator;
+        int textColor;
+        float textSize;
+        Typeface typeface;
+        int textStyle;
+        int textShadowColor;
+        float textShadowRadius;
+        float textShadowDistX;
+        float textShadowDistY;
+        int textPrecision;
+        float minSweepDelta;
+        boolean staticMode;
+        boolean extrapolateProgress;
+        int smoothing;
+        float smoothingCutoff;
+        float smoothingBeta;
+        boolean glyphTextEnabled;
+        boolean drawBackgroundBar;
+        int backgroundBarColor;
+        float backgroundBarThickness;
+        float progressBarThickness;
+        int progressBarStyle;
+
+        // FILLED FIELD BY FIELD BY A RENDERER PARSING ITS XML ATTRIBUTES
+        Builder(@ChartMode int mode) {
+            this.mode = mode;
+        }
+
+        public Builder(@NonNull Context context, @ChartMode int mode) {
+            if (mode < MODE_RING || mode > MODE_FILL) {
+                throw new IllegalArgumentException("Chart mode must be a valid ChartMode constant.");
+            }
+            DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+
+            this.mode = mode;
+            orientation = ORIENTATION_CLOCKWISE;
+            startAngle = DEFAULT_START_ANGLE;
+            drawBackground = mode == MODE_PIE;
+            backgroundColor = Color.BLACK;
+            progressColor = Color.RED;
+            gradientType = -1;
+            gradientAngle = startAngle;
+            animDuration = DEFAULT_ANIMATION_DURATION;
+            animInterpolator = new LinearInterpolator();
+            textColor = Color.WHITE;
+            textSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, DEFAULT_TEXT_SP_SIZE, metrics);
+            textStyle = Typeface.NORMAL;
+            textShadowColor = Color.TRANSPARENT;
+            textPrecision = TEXT_PRECISION_INTEGER;
+            smoothing = SMOOTHING_NONE;
+            smoothingCutoff = DEFAULT_SMOOTHING_CUTOFF;
+            smoothingBeta = DEFAULT_SMOOTHING_BETA;
+            drawBackgroundBar = true;
+            backgroundBarColor = Color.BLACK;
+            backgroundBarThickness = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_BG_BAR_DP_WIDTH, metrics);
+            progressBarThickness = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_PROGRESS_BAR_DP_WIDTH, metrics);
+            progressBarStyle = CAP_ROUND;
+        }
+
+        public Builder(@NonNull ChartStyle style) {
+            mode = style.mode;
+            orientation = style.orientation;
+            startAngle = style.startAngle;
+            drawBackground = style.drawBackground;
+            backgroundColor = style.backgroundColor;
+            backgroundOffset = style.backgroundOffset;
+            progressColor = style.progressColor;
+            gradientType = style.gradientType;
+            gradientColors = style.gradientColors;
+            gradientDistributions = style.gradientDistributions;
+            gradientAngle = style.gradientAngle;
+            colorStops = style.colorStops;
+            animDuration = style.animDuration;
+            animInterpolator = style.animInterpolator;
+            textColor = style.textColor;
+            textSize = style.textSize;
+            typeface = style.typeface;
+            textStyle = style.textStyle;
+            textShadowColor = style.textShadowColor;
+            textShadowRadius = style.textShadowRadius;
+            textShadowDistX = style.textShadowDistX;
+            textShadowDistY = style.textShadowDistY;
+            textPrecision = style.textPrecision;
+            minSweepDelta = style.minSweepDelta;
+            staticMode = style.staticMode;
+            extrapolateProgress = style.extrapolateProgress;
+            smoothing = style.smoothing;
+            smoothingCutoff = style.smoothingCutoff;
+            smoothingBeta = style.smoothingBeta;
+            glyphTextEnabled = style.glyphTextEnabled;
+            drawBackgroundBar = style.drawBackgroundBar;
+            backgroundBarColor = style.backgroundBarColor;
+            backgroundBarThickness = style.backgroundBarThickness;
+            progressBarThickness = style.progressBarThickness;
+            progressBarStyle = style.progressBarStyle;
+        }
+
+        public Builder orientation(@ProgressOrientation int orientation) {
+            if (orientation != ORIENTATION_CLOCKWISE && orientation != ORIENTATION_COUNTERCLOCKWISE) {
+                throw new IllegalArgumentException("Orientation must be a ProgressOrientation constant.");
+            }
+            this.orientation = orientation;
+            return this;
+        }
+
+        public Builder startAngle(float startAngle) {
+            if (startAngle < 0 || startAngle > 360) {
+                throw new IllegalArgumentException("Start angle value must be positive and less or equal to 360.");
+            }
+            this.startAngle = startAngle;
+            return this;
+        }
+
+        public Builder drawBackgroundEnabled(boolean enabled) {
+            this.drawBackground = enabled;
+            return this;
+        }
+
+        public Builder backgroundColor(@ColorInt int color) {
+            this.backgroundColor = color;
+            return this;
+        }
+
+        public Builder backgroundOffset(int offset) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("Background offset must be a positive value.");
+            }
+            this.backgroundOffset = offset;
+            return this;
+        }
+
+        public Builder progressColor(@ColorInt int color) {
+            this.progressColor = color;
+            return this;
+        }
+
+        public Builder gradientColors(@GradientTypes int type, @NonNull int[] colors, @Nullable float[] positions, float angle) {
+            if (type < GRADIENT_LINEAR || type > GRADIENT_SWEEP) {
+                throw new IllegalArgumentException("Invalid value for progress gradient type.");
+            }
+            this.gradientType = type;
+            this.gradientColors = colors.clone();
+            this.gradientDistributions = (positions != null) ? positions.clone() : null;
+            this.gradientAngle = angle;
+            return this;
+        }
+
+        public Builder clearGradientColors() {
+            this.gradientType = -1;
+            this.gradientColors = null;
+            this.gradientDistributions = null;
+            this.gradientAngle = startAngle;
+            return this;
+        }
+
+        // FROZEN WHEN THE STYLE IS BUILT, THE PROVIDER CAN NOT BE CHANGED UNDER THE CHARTS SHARING IT
+        public Builder colorStops(@Nullable ColorStopProvider colorStops) {
+            this.colorStops = colorStops;
+            return this;
+        }
+
+        public Builder animationDuration(int duration) {
+            if (duration < 50) {
+                throw new IllegalArgumentException("Duration must be equal or greater than 50.");
+            }
+            this.animDuration = duration;
+            return this;
+        }
+
+        public Builder animationInterpolator(@NonNull TimeInterpolator interpolator) {
+            this.animInterpolator = interpolator;
+            return this;
+        }
+
+        public Builder textColor(@ColorInt int color) {
+            this.textColor = color;
+            return this;
+        }
+
+        public Builder textSize(float size) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("Text size must be a nonzero positive value.");
+            }
+            this.textSize = size;
+            return this;
+        }
+
+        public Builder typeface(@Nullable Typeface typeface) {
+            this.typeface = (typeface != null && textStyle > 0) ? TypefaceCache.withStyle(typeface, textStyle) : typeface;
+            return this;
+        }
+
+        public Builder textStyle(@TextStyle int style) {
+            if (style < 0 || style > 3) {
+                throw new IllegalArgumentException("Text style must be a valid TextStyle constant.");
+            }
+            this.textStyle = style;
+            this.typeface = TypefaceCache.withStyle(typeface, style);
+            return this;
+        }
+
+        public Builder textShadow(@ColorInt int color, float radius, float distX, float distY) {
+            this.textShadowColor = color;
+            this.textShadowRadius = radius;
+            this.textShadowDistX = distX;
+            this.textShadowDistY = distY;
+            return this;
+        }
+
+        public Builder textPrecision(@TextPrecision int precision) {
+            if (precision < TEXT_PRECISION_INTEGER || precision > TEXT_PRECISION_TWO_DECIMALS) {
+                throw new IllegalArgumentException("Text precision must be a valid TextPrecision constant.");
+            }
+            this.textPrecision = precision;
+            return this;
+        }
+
+        public Builder minSweepDelta(float delta) {
+            if (delta < 0) {
+                throw new IllegalArgumentException("Minimum sweep delta must be a positive value.");
+            }
+            this.minSweepDelta = delta;
+            return this;
+        }
+
+        public Builder staticModeEnabled(boolean enabled) {
+            this.staticMode = enabled;
+            return this;
+        }
+
+        public Builder progressExtrapolationEnabled(boolean enabled) {
+            this.extrapolateProgress = enabled;
+            return this;
+        }
+
+        public Builder progressSmoothing(@ProgressSmoothing int smoothing, float cutoff, float beta) {
+            if (smoothing < SMOOTHING_NONE || smoothing > SMOOTHING_ONE_EURO) {
+                throw new IllegalArgumentException("Progress smoothing must be a valid ProgressSmoothing constant.");
+            }
+            if (!(cutoff > 0)) {
+                throw new IllegalArgumentException("Smoothing cutoff must be a positive value.");
+            }
+            if (beta < 0) {
+                throw new IllegalArgumentException("Smoothing beta must be a positive value.");
+            }
+            this.smoothing = smoothing;
+            this.smoothingCutoff = cutoff;
+            this.smoothingBeta = beta;
+            return this;
+        }
+
+        public Builder glyphTextEnabled(boolean enabled) {
+            this.glyphTextEnabled = enabled;
+            return this;
+        }
+
+        public Builder drawBackgroundBarEnabled(boolean enabled) {
+            this.drawBackgroundBar = enabled;
+            return this;
+        }
+
+        public Builder backgroundBarColor(@ColorInt int color) {
+            this.backgroundBarColor = color;
+            return this;
+        }
+
+        public Builder backgroundBarThickness(float thickness) {
+            if (thickness < 0) {
+                throw new IllegalArgumentException("Background bar thickness must be a positive value.");
+            }
+            this.backgroundBarThickness = thickness;
+            return this;
+        }
+
+        public Builder progressBarThickness(float thickness) {
+            if (thickness < 0) {
+                throw new IllegalArgumentException("Progress bar thickness must be a positive value.");
+            }
+            this.progressBarThickness = thickness;
+            return this;
+        }
+
+        public Builder progressBarStyle(@ProgressBarStyle int style) {
+            if (style != CAP_ROUND && style != CAP_SQUARE) {
+                throw new IllegalArgumentException("Progress bar style must be a valid ProgressBarStyle constant.");
+            }
+            this.progressBarStyle = style;
+            return this;
+        }
+
+        @NonNull
+        public ChartStyle build() {
+            if (colorStops != null) {
+                colorStops.freeze();
+            }
+            return new ChartStyle(this);
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.util.LruCache;
+import android.util.TypedValue;
+import android.view.InflateException;
+
+import androidx.annotation.NonNull;
+
+import com.ramijemli.percentagechartview.IPercentageChartView;
+import com.ramijemli.percentagechartview.R;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_PIE;
+
+/**
+ * Compiles the chart attributes of an inflated chart once per theme into an immutable ChartStyle,
+ * reused by every chart inflated afterwards with the same style resource and attribute values.
+ * Safe to use from any thread, renderers must still be obtained from the main thread.
+ */
+public final class CompiledStyleCache {
+
+    private static final int MAX_STYLES_PER_THEME = 32;
+    private static final int MAX_PARSED_GRADIENTS = 16;
+
+    private static final Object sLock = new Object();
+
+    // WEAK SO THAT A DESTROYED ACTIVITY'S THEME AND ITS STYLES CAN BE COLLECTED
+    private static final Map<Resources.Theme, LruCache<StyleKey, CompiledStyle>> sStyles = new WeakHashMap<>();
+    private static final Map<Resources.Theme, Integer> sAccentColors = new WeakHashMap<>();
+
+    private static final LruCache<String, int[]> sGradientColors = new LruCache<>(MAX_PARSED_GRADIENTS);
+    private static final LruCache<String, float[]> sGradientDistributions = new LruCache<>(MAX_PARSED_GRADIENTS);
+
+    // ONLY CHART ATTRIBUTES ARE PART OF THE KEY, IDS AND LAYOUT PARAMS DIFFER FROM ONE CHART TO ANOTHER
+    private static final int[] sChartAttrs;
+
+    static {
+        sChartAttrs = R.styleable.PercentageChartView.clone();
+        Arrays.sort(sChartAttrs);
+    }
+
+    private static int sHitCount;
+    private static int sMissCount;
+
+    private CompiledStyleCache() {
+    }
+
+    @NonNull
+    public static BaseModeRenderer obtainRenderer(@NonNull IPercentageChartView view, @NonNull Context context, @NonNull AttributeSet attributeSet) {
+        Resources.Theme theme = context.getTheme();
+        StyleKey key = new StyleKey(attributeSet);
+
+        CompiledStyle compiled;
+        synchronized (sLock) {
+            LruCache<StyleKey, CompiledStyle> styles = sStyles.get(theme);
+            compiled = (styles != null) ? styles.get(key) : null;
+            if (compiled != null) {
+                sHitCount++;
+            } else {
+                sMissCount++;
+            }
+        }
+
+        if (compiled != null) {
+            BaseModeRenderer renderer = RendererFactory.create(view, compiled.style);
+            renderer.setProgress(compiled.progress, false);
+            return renderer;
+        }
+
+        BaseModeRenderer renderer;
+        TypedArray attrs = theme.obtainStyledAttributes(attributeSet, R.styleable.PercentageChartView, 0, 0);
+        try {
+            //CHART MODE (DEFAULT PIE MODE)
+            int mode = attrs.getInt(R.styleable.PercentageChartView_pcv_mode, MODE_PIE);
+            renderer = RendererFactory.create(mode, view, attrs);
+        } finally {
+            attrs.recycle();
+        }
+
+        compiled = new CompiledStyle(renderer.captureStyle(), renderer.getProgress());
+        synchronized (sLock) {
+            LruCache<StyleKey, CompiledStyle> styles = sStyles.get(theme);
+            if (styles == null) {
+                styles = new LruCache<>(MAX_STYLES_PER_THEME);
+                sStyles.put(theme, styles);
+            }
+            styles.put(key, compiled);
+        }
+        return renderer;
+    }
+
+    static int accentColor(@NonNull Context context) {
+        Resources.Theme theme = context.getTheme();
+        synchronized (sLock) {
+            Integer color = sAccentColors.get(theme);
+            if (color != null) return color;
+        }
+
+        int colorAttr;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            colorAttr = android.R.attr.colorAccent;
+        } else {
+            colorAttr = context.getResources().getIdentifier("colorAccent",
+                    "attr",
+                    context.getPackageName()
+            );
+        }
+        TypedValue outValue = new TypedValue();
+        theme.resolveAttribute(colorAttr, outValue, true);
+
+        synchronized (sLock) {
+            sAccentColors.put(theme, outValue.data);
+        }
+        return outValue.data;
+    }
+
+    // PARSED ARRAYS ARE SHARED, RENDERERS NEVER WRITE INTO THEIR GRADIENT ARRAYS
+    static int[] parseGradientColors(@NonNull String value) {
+        synchronized (sLock) {
+            int[] cached = sGradientColors.get(value);
+            if (cached != null) return cached;
+        }
+
+        String[] colors = value.split(",");
+        int[] parsed = new int[colors.length];
+        try {
+            for (int i = 0; i < colors.length; i++) {
+                parsed[i] = Color.parseColor(colors[i].trim());
+            }
+        } catch (Exception e) {
+            throw new InflateException("pcv_gradientColors attribute contains invalid hex color values.");
+        }
+
+        synchronized (sLock) {
+            sGradientColors.put(value, parsed);
+        }
+        return parsed;
+    }
+
+    static float[] parseGradientDistributions(@NonNull String value) {
+        synchronized (sLock) {
+            float[] cached = sGradientDistributions.get(value);
+            if (cached != null) return cached;
+        }
+
+        String[] distributions = value.split(",");
+        float[] parsed = new float[distributions.length];
+        try {
+            for (int i = 0; i < distributions.length; i++) {
+                parsed[i] = Float.parseFloat(distributions[i].trim());
+            }
+        } catch (Exception e) {
+            throw new InflateException("pcv_gradientDistributions attribute contains invalid values.");
+        }
+
+        synchronized (sLock) {
+            sGradientDistributions.put(value, parsed);
+        }
+        return parsed;
+    }
+
+    public static int hitCount() {
+        synchronized (sLock) {
+            return sHitCount;
+        }
+    }
+
+    public static int missCount() {
+        synchronized (sLock) {
+            return sMissCount;
+        }
+    }
+
+    public static void clear() {
+        synchronized (sLock) {
+            sStyles.clear();
+            sAccentColors.clear();
+            sGradientColors.evictAll();
+            sGradientDistributions.evictAll();
+        }
+    }
+
+    private static final class CompiledStyle {
+        final ChartStyle style;
+        final float progress;
+
+        CompiledStyle(ChartStyle style, float progress) {
+            this.style = style;
+            this.progress = progress;
+        }
+    }
+
+    private static final class StyleKey {
+        final int styleRes;
+        final int[] names;
+        final String[] values;
+        final int hash;
+
+        StyleKey(AttributeSet set) {
+            int count = set.getAttributeCount();
+            int[] names = new int[count];
+            String[] values = new String[count];
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                int name = set.getAttributeNameResource(i);
+                if (Arrays.binarySearch(sChartAttrs, name) < 0) continue;
+                names[size] = name;
+                values[size] = set.getAttributeValue(i);
+                size++;
+            }
+
+            this.styleRes = set.getStyleAttribute();
+            this.names = Arrays.copyOf(names, size);
+            this.values = Arrays.copyOf(values, size);
+
+            int result = styleRes;
+            result = 31 * result + Arrays.hashCode(this.names);
+            result = 31 * result + Arrays.hashCode(this.values);
+            hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StyleKey)) return false;
+            StyleKey other = (StyleKey) o;
+            return hash == other.hash
+                    && styleRes == other.styleRes
+                    && Arrays.equals(names, other.names)
+                    && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
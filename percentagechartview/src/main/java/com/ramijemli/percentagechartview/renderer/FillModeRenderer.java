@@ -18,17 +18,15 @@ package com.ramijemli.percentagechartview.renderer;
 
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.LinearGradient;
-import android.graphics.Matrix;
-import android.graphics.RadialGradient;
 import android.graphics.RectF;
-import android.graphics.Shader;
 
 import androidx.annotation.Nullable;
 
 import com.ramijemli.percentagechartview.IPercentageChartView;
 import com.ramijemli.percentagechartview.callback.AdaptiveColorProvider;
 
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_BACKGROUND_OFFSET;
+
 public class FillModeRenderer extends BaseModeRenderer implements OffsetEnabledMode {
 
     private float mDirectionAngle;
@@ -45,17 +43,25 @@ public class FillModeRenderer extends BaseModeRenderer implements OffsetEnabledM
         setup();
     }
 
+    public FillModeRenderer(IPercentageChartView view, ChartStyle style) {
+        super(view, style);
+        setup();
+    }
+
     @Override
-    void setup() {
-        super.setup();
+    void bindStyle() {
+        super.bindStyle();
         this.mDirectionAngle = mStartAngle;
     }
 
     @Override
-    public void measure(int w, int h, int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
-        int centerX = w / 2;
-        int centerY = h / 2;
-        mRadius = (float) Math.min(w, h) / 2;
+    public int getMode() {
+        return MODE_FILL;
+    }
+
+    @Override
+    void measureGeometry(float centerX, float centerY, float diameter) {
+        mRadius = diameter / 2;
 
         mCircleBounds.set(centerX - mRadius,
                 centerY - mRadius,
@@ -64,6 +70,7 @@ public class FillModeRenderer extends BaseModeRenderer implements OffsetEnabledM
         measureBackgroundBounds();
         updateDrawingAngles();
         setupGradientColors(mCircleBounds);
+        mStaticLayer.invalidate();
         updateText();
     }
 
@@ -77,7 +84,9 @@ public class FillModeRenderer extends BaseModeRenderer implements OffsetEnabledM
     @Override
     public void draw(Canvas canvas) {
         //BACKGROUND
-        if (mDrawBackground) {
+        if (hasStaticLayer()) {
+            mStaticLayer.draw(canvas, this, mView.getWidth(), mView.getHeight());
+        } else if (mStyle.drawBackground) {
             canvas.drawArc(mBackgroundBounds, mStartAngle, mBgSweepAngle, false, mBackgroundPaint);
         }
 
@@ -88,42 +97,53 @@ public class FillModeRenderer extends BaseModeRenderer implements OffsetEnabledM
         drawText(canvas);
     }
 
+    @Override
+    boolean hasStaticLayer() {
+        // AN OFFSET BACKGROUND IS A FULL CIRCLE THAT DOES NOT FOLLOW PROGRESS
+        return mStyle.drawBackground && mBackgroundOffset > 0;
+    }
+
+    @Override
+    void drawStaticLayer(Canvas canvas) {
+        canvas.drawArc(mBackgroundBounds, 0, 360, false, mBackgroundPaint);
+    }
+
     @Override
     public void setAdaptiveColorProvider(@Nullable AdaptiveColorProvider adaptiveColorProvider) {
         if (adaptiveColorProvider == null) {
-            mProgressColorAnimator = mBackgroundColorAnimator = mTextColorAnimator = null;
+            if (mAnimator != null) {
+                mAnimator.cancelColorAnimations();
+            }
             this.mAdaptiveColorProvider = null;
-            mTextPaint.setColor(mTextColor);
-            mBackgroundPaint.setColor(mBackgroundColor);
-            mProgressPaint.setColor(mProgressColor);
-            mView.postInvalidate();
+            mTextPaint.setColor(mStyle.textColor);
+            mBackgroundPaint.setColor(mStyle.backgroundColor);
+            mStaticLayer.invalidate();
+            mProgressPaint.setColor(mStyle.progressColor);
+            requestInvalidate();
             return;
         }
 
         this.mAdaptiveColorProvider = adaptiveColorProvider;
+        invalidateColorTable();
 
-        setupColorAnimations();
         updateProvidedColors(mProgress);
-        mView.postInvalidate();
+        requestInvalidate();
     }
 
     @Override
     void setupGradientColors(RectF bounds) {
-        if (mGradientType == -1 || mGradientType == GRADIENT_SWEEP) return;
+        if (mStyle.gradientType == -1 || mStyle.gradientType == GRADIENT_SWEEP) return;
 
-        switch (mGradientType) {
+        switch (mStyle.gradientType) {
             default:
             case GRADIENT_LINEAR:
-                mGradientShader = new LinearGradient(bounds.centerX(), bounds.top, bounds.centerX(), bounds.bottom, mGradientColors, mGradientDistributions, Shader.TileMode.CLAMP);
-                updateGradientAngle(mGradientAngle);
+                updateGradientShader(bounds, mGradientAngle);
                 break;
 
             case GRADIENT_RADIAL:
-                mGradientShader = new RadialGradient(bounds.centerX(), bounds.centerY(), bounds.bottom - bounds.centerY(), mGradientColors, mGradientDistributions, Shader.TileMode.MIRROR);
+                updateGradientShader(bounds, 0);
                 break;
         }
-
-        mProgressPaint.setShader(mGradientShader);
     }
 
     @Override
@@ -137,14 +157,6 @@ public class FillModeRenderer extends BaseModeRenderer implements OffsetEnabledM
         mBgSweepAngle = (mBackgroundOffset > 0) ? 360 : mSweepAngle - 360;
     }
 
-    @Override
-    void updateGradientAngle(float angle) {
-        if (mGradientType == -1 || mGradientType == GRADIENT_RADIAL) return;
-        Matrix matrix = new Matrix();
-        matrix.postRotate(angle, mCircleBounds.centerX(), mCircleBounds.centerY());
-        mGradientShader.setLocalMatrix(matrix);
-    }
-
     @Override
     public float getStartAngle() {
         return mDirectionAngle;
@@ -157,16 +169,36 @@ public class FillModeRenderer extends BaseModeRenderer implements OffsetEnabledM
         updateDrawingAngles();
     }
 
+    @Override
+    void onAnimatedProperty(int property, float value) {
+        if (property == PROPERTY_BACKGROUND_OFFSET) {
+            setBackgroundOffset(Math.round(value));
+            mFrameDirty = true;
+            return;
+        }
+        super.onAnimatedProperty(property, value);
+    }
+
     //BACKGROUND OFFSET
     public int getBackgroundOffset() {
         return mBackgroundOffset;
     }
 
     public void setBackgroundOffset(int backgroundOffset) {
-        if (!mDrawBackground || this.mBackgroundOffset == backgroundOffset)
+        if (!mStyle.drawBackground || this.mBackgroundOffset == backgroundOffset)
             return;
         this.mBackgroundOffset = backgroundOffset;
         measureBackgroundBounds();
         updateDrawingAngles();
+        mStaticLayer.invalidate();
+    }
+
+    public void setBackgroundOffset(int backgroundOffset, boolean animate) {
+        if (!animate || !mStyle.drawBackground) {
+            setBackgroundOffset(backgroundOffset);
+            return;
+        }
+        animateStyleProperty(PROPERTY_BACKGROUND_OFFSET, mBackgroundOffset, backgroundOffset);
     }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.Spanned;
+import android.text.TextPaint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Draws labels made only of digits, '%', '.' and '-' from glyph advances measured once per
+ * typeface and text size, without any text layout object.
+ */
+final class GlyphTextRenderer {
+
+    private static final char[] GLYPHS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '%', '.', '-'};
+    private static final int MAX_LABEL_LENGTH = 16;
+    private static final int MAX_CACHED_METRICS = 16;
+
+    // GLYPH METRICS SHARED BY ALL RENDERERS USING THE SAME TYPEFACE AND TEXT SIZE
+    private static final Map<MetricsKey, GlyphMetrics> sMetrics = new LinkedHashMap<MetricsKey, GlyphMetrics>(MAX_CACHED_METRICS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MetricsKey, GlyphMetrics> eldest) {
+            return size() > MAX_CACHED_METRICS;
+        }
+    };
+
+    private GlyphMetrics mMetrics;
+    private final char[] mLabel;
+    private int mLabelLength;
+    private float mLabelWidth;
+
+    GlyphTextRenderer() {
+        mLabel = new char[MAX_LABEL_LENGTH];
+    }
+
+    void configure(TextPaint paint) {
+        Typeface typeface = paint.getTypeface();
+        float textSize = paint.getTextSize();
+        if (mMetrics != null && mMetrics.key.typeface == typeface && mMetrics.key.textSize == textSize) return;
+
+        MetricsKey key = new MetricsKey(typeface, textSize);
+        GlyphMetrics metrics = sMetrics.get(key);
+        if (metrics == null) {
+            metrics = new GlyphMetrics(key, paint);
+            sMetrics.put(key, metrics);
+        }
+        mMetrics = metrics;
+    }
+
+    boolean setText(CharSequence text) {
+        int length = text.length();
+        if (mMetrics == null || text instanceof Spanned || length > MAX_LABEL_LENGTH) return false;
+
+        float width = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            int glyph = indexOf(c);
+            if (glyph < 0) return false;
+            mLabel[i] = c;
+            width += mMetrics.advances[glyph];
+        }
+        mLabelLength = length;
+        mLabelWidth = width;
+        return true;
+    }
+
+    void draw(Canvas canvas, float centerX, float centerY, Paint paint) {
+        // CENTERED FROM THE CACHED ADVANCES AND DRAWN AS A SINGLE RUN SO THAT KERNING STILL APPLIES
+        float baseline = centerY - (mMetrics.ascent + mMetrics.descent) / 2;
+        Paint.Align align = paint.getTextAlign();
+        paint.setTextAlign(Paint.Align.LEFT);
+        canvas.drawText(mLabel, 0, mLabelLength, centerX - mLabelWidth / 2, baseline, paint);
+        paint.setTextAlign(align);
+    }
+
+    private static int indexOf(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        switch (c) {
+            case '%':
+                return 10;
+            case '.':
+                return 11;
+            case '-':
+                return 12;
+
+            default:
+                return -1;
+        }
+    }
+
+    private static final class MetricsKey {
+        final Typeface typeface;
+        final float textSize;
+
+        MetricsKey(Typeface typeface, float textSize) {
+            this.typeface = typeface;
+            this.textSize = textSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MetricsKey)) return false;
+            MetricsKey other = (MetricsKey) o;
+            return typeface == other.typeface && textSize == other.textSize;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(typeface) + Float.floatToIntBits(textSize);
+        }
+    }
+
+    private static final class GlyphMetrics {
+        final MetricsKey key;
+        final float[] advances;
+        final float ascent;
+        final float descent;
+
+        GlyphMetrics(MetricsKey key, TextPaint paint) {
+            this.key = key;
+            advances = new float[GLYPHS.length];
+            paint.getTextWidths(GLYPHS, 0, GLYPHS.length, advances);
+            Paint.FontMetrics fontMetrics = paint.getFontMetrics();
+            ascent = fontMetrics.ascent;
+            descent = fontMetrics.descent;
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.graphics.LinearGradient;
+import android.graphics.Matrix;
+import android.graphics.RadialGradient;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.SweepGradient;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.GRADIENT_LINEAR;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.GRADIENT_RADIAL;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.GRADIENT_SWEEP;
+
+/**
+ * Reference counted cache of progress gradient shaders, shared by every renderer drawing the same
+ * gradient within the same bounds and at the same angle. Shaders are never mutated once cached,
+ * a new angle means acquiring another shader. Must only be used from the main thread.
+ */
+final class GradientShaderCache {
+
+    private static final int MAX_UNUSED_SHADERS = 16;
+
+    private static final Map<ShaderKey, Entry> sEntries = new HashMap<>();
+    private static final Map<Shader, Entry> sEntriesByShader = new IdentityHashMap<>();
+
+    // SHADERS NO RENDERER HOLDS ANYMORE, OLDEST FIRST
+    private static final LinkedHashMap<ShaderKey, Entry> sUnused = new LinkedHashMap<>();
+
+    // REUSED FOR LOOKUPS AND FOR ROTATING NEW SHADERS
+    private static final ShaderKey sProbe = new ShaderKey();
+    private static final Matrix sMatrix = new Matrix();
+
+    private GradientShaderCache() {
+    }
+
+    static Shader acquire(int type, int[] colors, float[] positions, RectF bounds, float angle) {
+        sProbe.set(type, colors, positions, bounds, angle);
+        Entry entry = sEntries.get(sProbe);
+        sProbe.colors = null;
+        sProbe.positions = null;
+
+        if (entry == null) {
+            ShaderKey key = new ShaderKey();
+            key.set(type, colors.clone(), (positions != null) ? positions.clone() : null, bounds, angle);
+            entry = new Entry(key, create(key));
+            sEntries.put(key, entry);
+            sEntriesByShader.put(entry.shader, entry);
+        } else if (entry.refCount == 0) {
+            sUnused.remove(entry.key);
+        }
+
+        entry.refCount++;
+        return entry.shader;
+    }
+
+    static void release(Shader shader) {
+        Entry entry = sEntriesByShader.get(shader);
+        if (entry == null || --entry.refCount > 0) return;
+
+        sUnused.put(entry.key, entry);
+        if (sUnused.size() > MAX_UNUSED_SHADERS) {
+            Iterator<Entry> eldest = sUnused.values().iterator();
+            Entry evicted = eldest.next();
+            eldest.remove();
+            sEntries.remove(evicted.key);
+            sEntriesByShader.remove(evicted.shader);
+        }
+    }
+
+    private static Shader create(ShaderKey key) {
+        Shader shader = create(key.type, key.colors, key.positions, key.left, key.top, key.right, key.bottom);
+        if (key.angle != 0) {
+            sMatrix.setRotate(key.angle, (key.left + key.right) / 2, (key.top + key.bottom) / 2);
+            shader.setLocalMatrix(sMatrix);
+        }
+        return shader;
+    }
+
+    // NOT CACHED, FOR SHADERS A RENDERER MUTATES ON ITS OWN
+    static Shader create(int type, int[] colors, float[] positions, float left, float top, float right, float bottom) {
+        float centerX = (left + right) / 2;
+        float centerY = (top + bottom) / 2;
+
+        switch (type) {
+            default:
+            case GRADIENT_LINEAR:
+                return new LinearGradient(centerX, top, centerX, bottom, colors, positions, Shader.TileMode.CLAMP);
+
+            case GRADIENT_RADIAL:
+                return new RadialGradient(centerX, centerY, bottom - centerY, colors, positions, Shader.TileMode.MIRROR);
+
+            case GRADIENT_SWEEP:
+                return new SweepGradient(centerX, centerY, colors, positions);
+        }
+    }
+
+    private static final class Entry {
+        final ShaderKey key;
+        final Shader shader;
+        int refCount;
+
+        Entry(ShaderKey key, Shader shader) {
+            this.key = key;
+            this.shader = shader;
+        }
+    }
+
+    private static final class ShaderKey {
+        int type;
+        int[] colors;
+        float[] positions;
+        float left, top, right, bottom;
+        float angle;
+        int hash;
+
+        void set(int type, int[] colors, float[] positions, RectF bounds, float angle) {
+            this.type = type;
+            this.colors = colors;
+            this.positions = positions;
+            this.left = bounds.left;
+            this.top = bounds.top;
+            this.right = bounds.right;
+            this.bottom = bounds.bottom;
+            this.angle = angle;
+
+            int result = type;
+            result = 31 * result + Arrays.hashCode(colors);
+            result = 31 * result + Arrays.hashCode(positions);
+            result = 31 * result + Float.floatToIntBits(left);
+            result = 31 * result + Float.floatToIntBits(top);
+            result = 31 * result + Float.floatToIntBits(right);
+            result = 31 * result + Float.floatToIntBits(bottom);
+            result = 31 * result + Float.floatToIntBits(angle);
+            hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ShaderKey)) return false;
+            ShaderKey other = (ShaderKey) o;
+            return hash == other.hash
+                    && type == other.type
+                    && left == other.left
+                    && top == other.top
+                    && right == other.right
+                    && bottom == other.bottom
+                    && angle == other.angle
+                    && Arrays.equals(colors, other.colors)
+                    && Arrays.equals(positions, other.positions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
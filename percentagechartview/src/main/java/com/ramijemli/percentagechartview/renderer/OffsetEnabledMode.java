@@ -22,4 +22,6 @@ public interface OffsetEnabledMode {
 
     void setBackgroundOffset(int backgroundOffset);
 
+    void setBackgroundOffset(int backgroundOffset, boolean animate);
+
 }
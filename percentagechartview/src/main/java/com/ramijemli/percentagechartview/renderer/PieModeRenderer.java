@@ -19,18 +19,15 @@ package com.ramijemli.percentagechartview.renderer;
 
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.LinearGradient;
-import android.graphics.Matrix;
-import android.graphics.RadialGradient;
 import android.graphics.RectF;
-import android.graphics.Shader;
-import android.graphics.SweepGradient;
 
 import androidx.annotation.Nullable;
 
 import com.ramijemli.percentagechartview.IPercentageChartView;
 import com.ramijemli.percentagechartview.callback.AdaptiveColorProvider;
 
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_BACKGROUND_OFFSET;
+
 
 public class PieModeRenderer extends BaseModeRenderer implements OrientationBasedMode, OffsetEnabledMode {
 
@@ -47,17 +44,25 @@ public class PieModeRenderer extends BaseModeRenderer implements OrientationBase
         setup();
     }
 
+    public PieModeRenderer(IPercentageChartView view, ChartStyle style) {
+        super(view, style);
+        setup();
+    }
+
     @Override
-    void setup() {
-        super.setup();
+    void bindStyle() {
+        super.bindStyle();
         updateDrawingAngles();
     }
 
     @Override
-    public void measure(int w, int h, int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
-        float centerX = w * 0.5f;
-        float centerY = h * 0.5f;
-        float radius = Math.min(w, h) * 0.5f;
+    public int getMode() {
+        return MODE_PIE;
+    }
+
+    @Override
+    void measureGeometry(float centerX, float centerY, float diameter) {
+        float radius = diameter * 0.5f;
 
         mCircleBounds.set(centerX - radius,
                 centerY - radius,
@@ -77,7 +82,7 @@ public class PieModeRenderer extends BaseModeRenderer implements OrientationBase
 
     @Override
     public void draw(Canvas canvas) {
-        if (mGradientType == GRADIENT_SWEEP && mView.isInEditMode()) {
+        if (mStyle.gradientType == GRADIENT_SWEEP && mView.isInEditMode()) {
             // TO GET THE RIGHT DRAWING START ANGLE FOR SWEEP GRADIENT'S COLORS IN PREVIEW MODE
             canvas.save();
             canvas.rotate(mStartAngle, mCircleBounds.centerX(), mCircleBounds.centerY());
@@ -87,11 +92,11 @@ public class PieModeRenderer extends BaseModeRenderer implements OrientationBase
         canvas.drawArc(mCircleBounds, mStartAngle, mSweepAngle, true, mProgressPaint);
 
         //BACKGROUND
-        if (mDrawBackground) {
+        if (mStyle.drawBackground) {
             canvas.drawArc(mBackgroundBounds, mBgStartAngle, mBgSweepAngle, true, mBackgroundPaint);
         }
 
-        if (mGradientType == GRADIENT_SWEEP && mView.isInEditMode()) {
+        if (mStyle.gradientType == GRADIENT_SWEEP && mView.isInEditMode()) {
             // TO GET THE RIGHT DRAWING START ANGLE FOR SWEEP GRADIENT'S COLORS IN PREVIEW MODE
             canvas.restore();
         }
@@ -103,53 +108,48 @@ public class PieModeRenderer extends BaseModeRenderer implements OrientationBase
     @Override
     public void setAdaptiveColorProvider(@Nullable AdaptiveColorProvider adaptiveColorProvider) {
         if (adaptiveColorProvider == null) {
-            mProgressColorAnimator = mBackgroundColorAnimator = mTextColorAnimator = null;
+            if (mAnimator != null) {
+                mAnimator.cancelColorAnimations();
+            }
             mAdaptiveColorProvider = null;
-            mTextPaint.setColor(mTextColor);
-            mBackgroundPaint.setColor(mBackgroundColor);
-            mProgressPaint.setColor(mProgressColor);
-            mView.postInvalidate();
+            mTextPaint.setColor(mStyle.textColor);
+            mBackgroundPaint.setColor(mStyle.backgroundColor);
+            mProgressPaint.setColor(mStyle.progressColor);
+            requestInvalidate();
             return;
         }
 
         this.mAdaptiveColorProvider = adaptiveColorProvider;
+        invalidateColorTable();
 
-        setupColorAnimations();
         updateProvidedColors(mProgress);
-        mView.postInvalidate();
+        requestInvalidate();
     }
 
     @Override
     void setupGradientColors(RectF bounds) {
-        if (mGradientType == -1 && bounds.height() == 0) return;
+        if (mStyle.gradientType == -1 || bounds.height() == 0) return;
 
-        switch (mGradientType) {
+        switch (mStyle.gradientType) {
             default:
             case GRADIENT_LINEAR:
-                mGradientShader = new LinearGradient(bounds.centerX(), bounds.top, bounds.centerX(), bounds.bottom, mGradientColors, mGradientDistributions, Shader.TileMode.CLAMP);
-                updateGradientAngle(mGradientAngle);
+                updateGradientShader(bounds, mGradientAngle);
                 break;
 
             case GRADIENT_RADIAL:
-                mGradientShader = new RadialGradient(bounds.centerX(), bounds.centerY(), bounds.bottom - bounds.centerY(), mGradientColors, mGradientDistributions, Shader.TileMode.MIRROR);
+                updateGradientShader(bounds, 0);
                 break;
 
             case GRADIENT_SWEEP:
-                mGradientShader = new SweepGradient(bounds.centerX(), bounds.centerY(), mGradientColors, mGradientDistributions);
-
-                if (!mView.isInEditMode()) {
-                    // THIS BREAKS SWEEP GRADIENT'S PREVIEW MODE
-                    updateGradientAngle(mStartAngle);
-                }
+                // ROTATING THE SHADER BREAKS SWEEP GRADIENT'S PREVIEW MODE
+                updateGradientShader(bounds, mView.isInEditMode() ? 0 : mStartAngle);
                 break;
         }
-
-        mProgressPaint.setShader(mGradientShader);
     }
 
     @Override
     void updateDrawingAngles() {
-        switch (orientation) {
+        switch (mStyle.orientation) {
             case ORIENTATION_COUNTERCLOCKWISE:
                 mSweepAngle = -(mProgress / DEFAULT_MAX * 360);
                 mBgStartAngle = mStartAngle;
@@ -165,21 +165,13 @@ public class PieModeRenderer extends BaseModeRenderer implements OrientationBase
         }
     }
 
-    @Override
-    void updateGradientAngle(float angle) {
-        if (mGradientType == -1 || mGradientType == GRADIENT_RADIAL) return;
-        Matrix matrix = new Matrix();
-        matrix.postRotate(angle, mCircleBounds.centerX(), mCircleBounds.centerY());
-        mGradientShader.setLocalMatrix(matrix);
-    }
-
     public int getOrientation() {
-        return orientation;
+        return mStyle.orientation;
     }
 
     public void setOrientation(int orientation) {
-        if (this.orientation == orientation) return;
-        this.orientation = orientation;
+        if (mStyle.orientation == orientation) return;
+        mStyle = editStyle().orientation(orientation).build();
         updateDrawingAngles();
     }
 
@@ -188,21 +180,39 @@ public class PieModeRenderer extends BaseModeRenderer implements OrientationBase
         if (this.mStartAngle == startAngle) return;
         this.mStartAngle = startAngle;
         updateDrawingAngles();
-        if (mGradientType == GRADIENT_SWEEP) {
+        if (mStyle.gradientType == GRADIENT_SWEEP) {
             updateGradientAngle(startAngle);
         }
     }
 
+    @Override
+    void onAnimatedProperty(int property, float value) {
+        if (property == PROPERTY_BACKGROUND_OFFSET) {
+            setBackgroundOffset(Math.round(value));
+            mFrameDirty = true;
+            return;
+        }
+        super.onAnimatedProperty(property, value);
+    }
+
     //BACKGROUND OFFSET
     public int getBackgroundOffset() {
         return mBackgroundOffset;
     }
 
     public void setBackgroundOffset(int backgroundOffset) {
-        if (!mDrawBackground || this.mBackgroundOffset == backgroundOffset)
+        if (!mStyle.drawBackground || this.mBackgroundOffset == backgroundOffset)
             return;
         this.mBackgroundOffset = backgroundOffset;
         measureBackgroundBounds();
     }
 
+    public void setBackgroundOffset(int backgroundOffset, boolean animate) {
+        if (!animate || !mStyle.drawBackground) {
+            setBackgroundOffset(backgroundOffset);
+            return;
+        }
+        animateStyleProperty(PROPERTY_BACKGROUND_OFFSET, mBackgroundOffset, backgroundOffset);
+    }
+
 }
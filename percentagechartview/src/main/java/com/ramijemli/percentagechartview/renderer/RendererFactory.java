@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.content.res.TypedArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ramijemli.percentagechartview.IPercentageChartView;
+import com.ramijemli.percentagechartview.annotation.ChartMode;
+
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_FILL;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_PIE;
+import static com.ramijemli.percentagechartview.renderer.BaseModeRenderer.MODE_RING;
+
+/**
+ * Creates the renderer of a chart mode, either from inflated attributes, defaults or a shared style.
+ */
+public final class RendererFactory {
+
+    private RendererFactory() {
+    }
+
+    @NonNull
+    public static BaseModeRenderer create(@ChartMode int mode, @NonNull IPercentageChartView view, @Nullable TypedArray attrs) {
+        switch (mode) {
+            case MODE_RING:
+                return (attrs != null) ? new RingModeRenderer(view, attrs) : new RingModeRenderer(view);
+            case MODE_FILL:
+                return (attrs != null) ? new FillModeRenderer(view, attrs) : new FillModeRenderer(view);
+
+            default:
+            case MODE_PIE:
+                return (attrs != null) ? new PieModeRenderer(view, attrs) : new PieModeRenderer(view);
+        }
+    }
+
+    @NonNull
+    public static BaseModeRenderer create(@NonNull IPercentageChartView view, @NonNull ChartStyle style) {
+        switch (style.mode) {
+            case MODE_RING:
+                return new RingModeRenderer(view, style);
+            case MODE_FILL:
+                return new FillModeRenderer(view, style);
+
+            default:
+            case MODE_PIE:
+                return new PieModeRenderer(view, style);
+        }
+    }
+
+}
@@ -17,18 +17,11 @@
 package com.ramijemli.percentagechartview.renderer;
 
 
-import android.animation.ArgbEvaluator;
-import android.animation.ValueAnimator;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.LinearGradient;
-import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.RadialGradient;
 import android.graphics.RectF;
-import android.graphics.Shader;
-import android.graphics.SweepGradient;
 import android.util.TypedValue;
 
 import androidx.annotation.Nullable;
@@ -37,106 +30,135 @@ import com.ramijemli.percentagechartview.IPercentageChartView;
 import com.ramijemli.percentagechartview.R;
 import com.ramijemli.percentagechartview.callback.AdaptiveColorProvider;
 
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.CHANNEL_BACKGROUND_BAR_COLOR;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_BACKGROUND_BAR_THICKNESS;
+import static com.ramijemli.percentagechartview.renderer.ChartAnimator.PROPERTY_PROGRESS_BAR_THICKNESS;
+
 
 public class RingModeRenderer extends BaseModeRenderer implements OrientationBasedMode {
 
     // BACKGROUND BAR
-    private static final float DEFAULT_BG_BAR_DP_WIDTH = 16;
+    static final float DEFAULT_BG_BAR_DP_WIDTH = 16;
 
     private Paint mBackgroundBarPaint;
-    private boolean mDrawBackgroundBar;
     private float mBackgroundBarThickness;
-    private int mBackgroundBarColor;
     private int mProvidedBgBarColor;
 
     //PROGRESS BAR
-    private static final float DEFAULT_PROGRESS_BAR_DP_WIDTH = 16;
+    static final float DEFAULT_PROGRESS_BAR_DP_WIDTH = 16;
     public static final int CAP_ROUND = 0;
     public static final int CAP_SQUARE = 1;
 
-    private Paint.Cap mProgressBarStyle;
     private float mProgressBarThickness;
 
     //TO PUSH PROGRESS BAR OUT OF SWEEP GRADIENT'S WAY
     private float tweakAngle;
 
+    //LAST MEASURED AREA, BOUNDS ARE REBUILT FROM IT WHILE THICKNESSES ANIMATE
+    private float mCenterX;
+    private float mCenterY;
+    private float mDiameter;
+
     public RingModeRenderer(IPercentageChartView view) {
         super(view);
-        init();
         setup();
     }
 
     public RingModeRenderer(IPercentageChartView view, TypedArray attrs) {
         super(view, attrs);
-        init(attrs);
         setup();
     }
 
-    private void init(TypedArray attrs) {
+    public RingModeRenderer(IPercentageChartView view, ChartStyle style) {
+        super(view, style);
+        setup();
+    }
+
+    @Override
+    void readStyle(TypedArray attrs, ChartStyle.Builder builder) {
+        super.readStyle(attrs, builder);
+
         //BACKGROUND BAR DRAW STATE
-        mDrawBackgroundBar = attrs.getBoolean(R.styleable.PercentageChartView_pcv_drawBackgroundBar, true);
+        builder.drawBackgroundBar = attrs.getBoolean(R.styleable.PercentageChartView_pcv_drawBackgroundBar, true);
 
         //BACKGROUND WIDTH
-        mBackgroundBarThickness = attrs.getDimensionPixelSize(com.ramijemli.percentagechartview.R.styleable.PercentageChartView_pcv_backgroundBarThickness,
+        builder.backgroundBarThickness = attrs.getDimensionPixelSize(com.ramijemli.percentagechartview.R.styleable.PercentageChartView_pcv_backgroundBarThickness,
                 (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_BG_BAR_DP_WIDTH, mView.getViewContext().getResources().getDisplayMetrics()));
 
         //BACKGROUND BAR COLOR
-        mBackgroundBarColor = attrs.getColor(R.styleable.PercentageChartView_pcv_backgroundBarColor, Color.BLACK);
+        builder.backgroundBarColor = attrs.getColor(R.styleable.PercentageChartView_pcv_backgroundBarColor, Color.BLACK);
 
         //PROGRESS WIDTH
-        mProgressBarThickness = attrs.getDimensionPixelSize(R.styleable.PercentageChartView_pcv_progressBarThickness,
+        builder.progressBarThickness = attrs.getDimensionPixelSize(R.styleable.PercentageChartView_pcv_progressBarThickness,
                 (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_PROGRESS_BAR_DP_WIDTH, mView.getViewContext().getResources().getDisplayMetrics()));
 
         //PROGRESS BAR STROKE STYLE
         int cap = attrs.getInt(com.ramijemli.percentagechartview.R.styleable.PercentageChartView_pcv_progressBarStyle, CAP_ROUND);
-        mProgressBarStyle = (cap == CAP_ROUND) ? Paint.Cap.ROUND : Paint.Cap.BUTT;
+        builder.progressBarStyle = (cap == CAP_ROUND) ? CAP_ROUND : CAP_SQUARE;
     }
 
-    private void init() {
-        //DRAW BACKGROUND BAR
-        mDrawBackgroundBar = true;
-
-        //BACKGROUND WIDTH
-        mBackgroundBarThickness = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_BG_BAR_DP_WIDTH, mView.getViewContext().getResources().getDisplayMetrics());
-
-        //BACKGROUND BAR COLOR
-        mBackgroundBarColor = Color.BLACK;
-
-        //PROGRESS BAR WIDTH
-        mProgressBarThickness = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_PROGRESS_BAR_DP_WIDTH, mView.getViewContext().getResources().getDisplayMetrics());
+    @Override
+    void initStyle(ChartStyle style) {
+        super.initStyle(style);
+        mBackgroundBarThickness = style.backgroundBarThickness;
+        mProgressBarThickness = style.progressBarThickness;
+    }
 
-        //PROGRESS BAR STROKE STYLE
-        mProgressBarStyle = Paint.Cap.ROUND;
+    @Override
+    void captureStyle(ChartStyle.Builder builder) {
+        super.captureStyle(builder);
+        builder.backgroundBarThickness = mBackgroundBarThickness;
+        builder.progressBarThickness = mProgressBarThickness;
     }
 
     @Override
     void setup() {
+        mBackgroundBarPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mBackgroundBarPaint.setStyle(Paint.Style.STROKE);
         super.setup();
+    }
+
+    @Override
+    void bindStyle() {
+        super.bindStyle();
         mProvidedBgBarColor = -1;
         tweakAngle = 0;
         updateDrawingAngles();
 
         //BACKGROUND BAR
-        mBackgroundBarPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mBackgroundBarPaint.setStyle(Paint.Style.STROKE);
-        mBackgroundBarPaint.setColor(mBackgroundBarColor);
+        mBackgroundBarPaint.setColor(mStyle.backgroundBarColor);
         mBackgroundBarPaint.setStrokeWidth(mBackgroundBarThickness);
-        mBackgroundBarPaint.setStrokeCap(mProgressBarStyle);
+        mBackgroundBarPaint.setStrokeCap(getProgressBarCap());
 
         //PROGRESS PAINT
         mProgressPaint.setStyle(Paint.Style.STROKE);
         mProgressPaint.setStrokeWidth(mProgressBarThickness);
-        mProgressPaint.setStrokeCap(mProgressBarStyle);
+        mProgressPaint.setStrokeCap(getProgressBarCap());
     }
 
     @Override
-    public void measure(int w, int h, int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
-        int diameter = Math.min(w, h);
-        float maxOffset = Math.max(mProgressBarThickness, mBackgroundBarThickness);
+    public int getMode() {
+        return MODE_RING;
+    }
+
+    @Override
+    void measureGeometry(float centerX, float centerY, float diameter) {
+        mCenterX = centerX;
+        mCenterY = centerY;
+        mDiameter = diameter;
+
+        updateBounds();
+        setupGradientColors(mCircleBounds);
+        mStaticLayer.invalidate();
+        updateText();
+    }
 
-        int centerX = w / 2;
-        int centerY = h / 2;
-        float radius = (diameter - maxOffset) / 2;
+    // ONLY BOUNDS DEPEND ON BAR THICKNESSES, SHADERS AND TEXT ARE LEFT UNTOUCHED
+    private void updateBounds() {
+        float centerX = mCenterX;
+        float centerY = mCenterY;
+        float maxOffset = Math.max(mProgressBarThickness, mBackgroundBarThickness);
+        float radius = (mDiameter - maxOffset) / 2;
 
         mCircleBounds.set(centerX - radius,
                 centerY - radius,
@@ -149,25 +171,23 @@ public class RingModeRenderer extends BaseModeRenderer implements OrientationBas
                 centerY - backgroundRadius,
                 centerX + backgroundRadius,
                 centerY + backgroundRadius);
+    }
 
-        setupGradientColors(mCircleBounds);
-        updateText();
+    private void updateTweakAngle() {
+        double ab = Math.pow(mCircleBounds.bottom - mCircleBounds.centerY(), 2);
+        tweakAngle = (float) Math.toDegrees(Math.acos((2 * ab - Math.pow(mProgressBarThickness / 2, 2)) / (2 * ab)));
     }
 
     @Override
     public void draw(Canvas canvas) {
-        //BACKGROUND
-        if (mDrawBackground) {
-            canvas.drawArc(mBackgroundBounds, 0, 360, false, mBackgroundPaint);
+        //BACKGROUND AND FULL BACKGROUND BAR
+        if (hasStaticLayer()) {
+            mStaticLayer.draw(canvas, this, mView.getWidth(), mView.getHeight());
         }
 
-        //BACKGROUND BAR
-        if (mDrawBackgroundBar) {
-            if (mBackgroundBarThickness <= mProgressBarThickness) {
-                canvas.drawArc(mCircleBounds, mStartAngle + tweakAngle, -(360 - mSweepAngle + tweakAngle), false, mBackgroundBarPaint);
-            } else {
-                canvas.drawArc(mCircleBounds, 0, 360, false, mBackgroundBarPaint);
-            }
+        //BACKGROUND BAR FOLLOWING PROGRESS
+        if (mStyle.drawBackgroundBar && mBackgroundBarThickness <= mProgressBarThickness) {
+            canvas.drawArc(mCircleBounds, mStartAngle + tweakAngle, -(360 - mSweepAngle + tweakAngle), false, mBackgroundBarPaint);
         }
 
         //FOREGROUND
@@ -179,119 +199,115 @@ public class RingModeRenderer extends BaseModeRenderer implements OrientationBas
         drawText(canvas);
     }
 
+    @Override
+    boolean hasStaticLayer() {
+        return mStyle.drawBackground || (mStyle.drawBackgroundBar && mBackgroundBarThickness > mProgressBarThickness);
+    }
+
+    @Override
+    void drawStaticLayer(Canvas canvas) {
+        //BACKGROUND
+        if (mStyle.drawBackground) {
+            canvas.drawArc(mBackgroundBounds, 0, 360, false, mBackgroundPaint);
+        }
+
+        //BACKGROUND BAR
+        if (mStyle.drawBackgroundBar && mBackgroundBarThickness > mProgressBarThickness) {
+            canvas.drawArc(mCircleBounds, 0, 360, false, mBackgroundBarPaint);
+        }
+    }
+
     @Override
     public void destroy() {
         super.destroy();
-        if (mBgBarColorAnimator != null) {
-            if (mBgBarColorAnimator.isRunning()) {
-                mBgBarColorAnimator.cancel();
-            }
-            mBgBarColorAnimator.removeAllUpdateListeners();
-        }
-        mBgBarColorAnimator = null;
         mBackgroundBarPaint = null;
     }
 
     @Override
     public void setAdaptiveColorProvider(@Nullable AdaptiveColorProvider adaptiveColorProvider) {
         if (adaptiveColorProvider == null) {
-            mProgressColorAnimator = mBackgroundColorAnimator = mTextColorAnimator = mBgBarColorAnimator = null;
+            if (mAnimator != null) {
+                mAnimator.cancelColorAnimations();
+            }
             this.mAdaptiveColorProvider = null;
-            mTextPaint.setColor(mTextColor);
-            mBackgroundBarPaint.setColor(mBackgroundBarColor);
-            mBackgroundPaint.setColor(mBackgroundColor);
-            mProgressPaint.setColor(mProgressColor);
-            mView.postInvalidate();
+            mTextPaint.setColor(mStyle.textColor);
+            mBackgroundBarPaint.setColor(mStyle.backgroundBarColor);
+            mBackgroundPaint.setColor(mStyle.backgroundColor);
+            mStaticLayer.invalidate();
+            mProgressPaint.setColor(mStyle.progressColor);
+            requestInvalidate();
             return;
         }
 
         this.mAdaptiveColorProvider = adaptiveColorProvider;
+        invalidateColorTable();
 
-        setupColorAnimations();
         updateProvidedColors(mProgress);
-        mView.postInvalidate();
+        requestInvalidate();
     }
 
     @Override
     void setupGradientColors(RectF bounds) {
-        if (mGradientType == -1) return;
+        if (mStyle.gradientType == -1) return;
 
-        double ab = Math.pow(bounds.bottom - bounds.centerY(), 2);
-        tweakAngle = (float) Math.toDegrees(Math.acos((2 * ab - Math.pow(mProgressBarThickness / 2, 2)) / (2 * ab)));
+        updateTweakAngle();
 
-        switch (mGradientType) {
+        switch (mStyle.gradientType) {
             default:
             case GRADIENT_LINEAR:
-                mGradientShader = new LinearGradient(bounds.centerX(), bounds.top, bounds.centerX(), bounds.bottom, mGradientColors, mGradientDistributions, Shader.TileMode.CLAMP);
-                updateGradientAngle(mStartAngle);
+                updateGradientShader(bounds, mView.isInEditMode() ? 0 : mGradientAngle);
                 break;
 
             case GRADIENT_RADIAL:
-                mGradientShader = new RadialGradient(bounds.centerX(), bounds.centerY(), bounds.bottom - bounds.centerY(), mGradientColors, mGradientDistributions, Shader.TileMode.MIRROR);
+                updateGradientShader(bounds, 0);
                 break;
 
             case GRADIENT_SWEEP:
-                mGradientShader = new SweepGradient(bounds.centerX(), bounds.centerY(), mGradientColors, mGradientDistributions);
-
-                if (!mView.isInEditMode()) {
-                    // THIS BREAKS SWEEP GRADIENT'S PREVIEW MODE
-                    updateGradientAngle(mStartAngle);
-                }
+                // ROTATING THE SHADER BREAKS SWEEP GRADIENT'S PREVIEW MODE
+                updateGradientShader(bounds, mView.isInEditMode() ? 0 : mStartAngle);
                 break;
         }
-
-        mProgressPaint.setShader(mGradientShader);
-    }
-
-    @Override
-    void setupColorAnimations() {
-        super.setupColorAnimations();
-        if (mBgBarColorAnimator == null) {
-            mBgBarColorAnimator = ValueAnimator.ofObject(new ArgbEvaluator(), mBackgroundBarColor, mProvidedBgBarColor);
-            mBgBarColorAnimator.addUpdateListener(animation -> {
-                mProvidedBgBarColor = (int) animation.getAnimatedValue();
-                mBackgroundBarPaint.setColor(mProvidedBgBarColor);
-            });
-            mBgBarColorAnimator.setDuration(mAnimDuration);
-        }
-    }
-
-    @Override
-    void cancelAnimations() {
-        super.cancelAnimations();
-        if (mBgBarColorAnimator != null && mBgBarColorAnimator.isRunning()) {
-            mBgBarColorAnimator.cancel();
-        }
     }
 
     @Override
     void updateAnimations(float progress) {
         super.updateAnimations(progress);
 
-        if (mAdaptiveColorProvider == null) return;
+        if (mAdaptiveColorProvider == null || isColorTableEnabled()) return;
 
-        int providedBgBarColor = mAdaptiveColorProvider.provideBackgroundBarColor(progress);
+        int providedBgBarColor = provideColor(CHANNEL_BACKGROUND_BAR_COLOR, progress);
         if (providedBgBarColor != -1 && providedBgBarColor != mProvidedBgBarColor) {
-            int startColor = mProvidedBgBarColor != -1 ? mProvidedBgBarColor : mBackgroundBarColor;
-            mBgBarColorAnimator.setIntValues(startColor, providedBgBarColor);
-            mBgBarColorAnimator.start();
+            int startColor = mProvidedBgBarColor != -1 ? mProvidedBgBarColor : mStyle.backgroundBarColor;
+            animator().animateColor(CHANNEL_BACKGROUND_BAR_COLOR, startColor, providedBgBarColor);
+        }
+    }
+
+    @Override
+    void onAnimatedColor(int channel, int color) {
+        if (channel != CHANNEL_BACKGROUND_BAR_COLOR) {
+            super.onAnimatedColor(channel, color);
+            return;
         }
+        mProvidedBgBarColor = color;
+        mBackgroundBarPaint.setColor(color);
+        mStaticLayer.invalidate();
     }
 
     @Override
     void updateProvidedColors(float progress) {
         super.updateProvidedColors(progress);
         if (mAdaptiveColorProvider == null) return;
-        int providedBgBarColor = mAdaptiveColorProvider.provideBackgroundBarColor(progress);
+        int providedBgBarColor = provideColor(CHANNEL_BACKGROUND_BAR_COLOR, progress);
         if (providedBgBarColor != -1 && providedBgBarColor != mProvidedBgBarColor) {
             mProvidedBgBarColor = providedBgBarColor;
             mBackgroundBarPaint.setColor(mProvidedBgBarColor);
+            mStaticLayer.invalidate();
         }
     }
 
     @Override
     void updateDrawingAngles() {
-        switch (orientation) {
+        switch (mStyle.orientation) {
             case ORIENTATION_COUNTERCLOCKWISE:
                 mSweepAngle = -(mProgress / DEFAULT_MAX * 360);
                 break;
@@ -303,21 +319,13 @@ public class RingModeRenderer extends BaseModeRenderer implements OrientationBas
         }
     }
 
-    @Override
-    void updateGradientAngle(float angle) {
-        if (mGradientType == -1 || mGradientType == GRADIENT_RADIAL) return;
-        Matrix matrix = new Matrix();
-        matrix.postRotate(angle, mCircleBounds.centerX(), mCircleBounds.centerY());
-        mGradientShader.setLocalMatrix(matrix);
-    }
-
     public int getOrientation() {
-        return orientation;
+        return mStyle.orientation;
     }
 
     public void setOrientation(int orientation) {
-        if (this.orientation == orientation) return;
-        this.orientation = orientation;
+        if (mStyle.orientation == orientation) return;
+        mStyle = editStyle().orientation(orientation).build();
         updateDrawingAngles();
     }
 
@@ -325,32 +333,61 @@ public class RingModeRenderer extends BaseModeRenderer implements OrientationBas
     public void setStartAngle(float startAngle) {
         if (this.mStartAngle == startAngle) return;
         this.mStartAngle = startAngle;
-        if (mGradientType == GRADIENT_SWEEP) {
+        if (mStyle.gradientType == GRADIENT_SWEEP) {
             updateGradientAngle(startAngle);
         }
     }
 
     // DRAW BACKGROUND BAR STATE
     public boolean isDrawBackgroundBarEnabled() {
-        return mDrawBackgroundBar;
+        return mStyle.drawBackgroundBar;
     }
 
     public void setDrawBackgroundBarEnabled(boolean drawBackgroundBar) {
-        if (mDrawBackgroundBar == drawBackgroundBar) return;
-        this.mDrawBackgroundBar = drawBackgroundBar;
+        if (mStyle.drawBackgroundBar == drawBackgroundBar) return;
+        mStyle = editStyle().drawBackgroundBarEnabled(drawBackgroundBar).build();
+        mStaticLayer.invalidate();
     }
 
     //BACKGROUND BAR COLOR
     public int getBackgroundBarColor() {
-        if (!mDrawBackgroundBar) return -1;
-        return mBackgroundBarColor;
+        if (!mStyle.drawBackgroundBar) return -1;
+        return mStyle.backgroundBarColor;
     }
 
     public void setBackgroundBarColor(int backgroundBarColor) {
-        if (!mDrawBackgroundBar || (mAdaptiveColorProvider != null && mAdaptiveColorProvider.provideBackgroundBarColor(mProgress) != -1) || this.mBackgroundBarColor == backgroundBarColor)
+        if (!mStyle.drawBackgroundBar || (mAdaptiveColorProvider != null && provideColor(CHANNEL_BACKGROUND_BAR_COLOR, mProgress) != -1) || mStyle.backgroundBarColor == backgroundBarColor)
             return;
-        this.mBackgroundBarColor = backgroundBarColor;
-        mBackgroundBarPaint.setColor(mBackgroundBarColor);
+        mStyle = editStyle().backgroundBarColor(backgroundBarColor).build();
+        mBackgroundBarPaint.setColor(backgroundBarColor);
+        mStaticLayer.invalidate();
+    }
+
+    @Override
+    void onAnimatedProperty(int property, float value) {
+        switch (property) {
+            case PROPERTY_PROGRESS_BAR_THICKNESS:
+                mProgressBarThickness = value;
+                mProgressPaint.setStrokeWidth(value);
+                break;
+
+            case PROPERTY_BACKGROUND_BAR_THICKNESS:
+                mBackgroundBarThickness = value;
+                mBackgroundBarPaint.setStrokeWidth(value);
+                break;
+
+            default:
+                super.onAnimatedProperty(property, value);
+                return;
+        }
+
+        updateBounds();
+        if (mStyle.gradientType != -1) {
+            updateTweakAngle();
+            updateShaderMatrix(getShaderAngle());
+        }
+        mStaticLayer.invalidate();
+        mFrameDirty = true;
     }
 
     //BACKGROUND BAR THICKNESS
@@ -362,7 +399,15 @@ public class RingModeRenderer extends BaseModeRenderer implements OrientationBas
         if (this.mBackgroundBarThickness == backgroundBarThickness) return;
         this.mBackgroundBarThickness = backgroundBarThickness;
         mBackgroundBarPaint.setStrokeWidth(backgroundBarThickness);
-        measure(mView.getWidth(), mView.getHeight(), 0, 0, 0, 0);
+        requestGeometry();
+    }
+
+    public void setBackgroundBarThickness(float backgroundBarThickness, boolean animate) {
+        if (!animate) {
+            setBackgroundBarThickness(backgroundBarThickness);
+            return;
+        }
+        animateStyleProperty(PROPERTY_BACKGROUND_BAR_THICKNESS, mBackgroundBarThickness, backgroundBarThickness);
     }
 
     //PROGRESS BAR THICKNESS
@@ -374,20 +419,32 @@ public class RingModeRenderer extends BaseModeRenderer implements OrientationBas
         if (this.mProgressBarThickness == progressBarThickness) return;
         this.mProgressBarThickness = progressBarThickness;
         mProgressPaint.setStrokeWidth(progressBarThickness);
-        measure(mView.getWidth(), mView.getHeight(), 0, 0, 0, 0);
+        requestGeometry();
+    }
+
+    public void setProgressBarThickness(float progressBarThickness, boolean animate) {
+        if (!animate) {
+            setProgressBarThickness(progressBarThickness);
+            return;
+        }
+        animateStyleProperty(PROPERTY_PROGRESS_BAR_THICKNESS, mProgressBarThickness, progressBarThickness);
     }
 
     //PROGRESS BAR STYLE
     public int getProgressBarStyle() {
-        return (mProgressBarStyle == Paint.Cap.ROUND) ? CAP_ROUND : CAP_SQUARE;
+        return mStyle.progressBarStyle;
+    }
+
+    private Paint.Cap getProgressBarCap() {
+        return (mStyle.progressBarStyle == CAP_ROUND) ? Paint.Cap.ROUND : Paint.Cap.BUTT;
     }
 
     public void setProgressBarStyle(int progressBarStyle) {
         if (progressBarStyle < 0 || progressBarStyle > 1) {
             throw new IllegalArgumentException("Text style must be a valid TextStyle constant.");
         }
-        mProgressBarStyle = (progressBarStyle == CAP_ROUND) ? Paint.Cap.ROUND : Paint.Cap.BUTT;
-        mProgressPaint.setStrokeCap(mProgressBarStyle);
+        mStyle = editStyle().progressBarStyle(progressBarStyle).build();
+        mProgressPaint.setStrokeCap(getProgressBarCap());
     }
 
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.os.Build;
+
+/**
+ * Records the parts of a chart that do not depend on progress into a {@link Picture} and replays
+ * it on every frame. A layer is only recorded once it has been drawn twice without being
+ * invalidated, so properties that are animating keep being drawn directly.
+ */
+final class StaticLayer {
+
+    private final Picture mPicture;
+    private boolean mRecorded;
+    private boolean mStable;
+
+    StaticLayer() {
+        mPicture = new Picture();
+    }
+
+    void invalidate() {
+        mRecorded = false;
+        mStable = false;
+    }
+
+    void draw(Canvas canvas, BaseModeRenderer renderer, int width, int height) {
+        // HARDWARE ACCELERATED CANVASES SUPPORT PICTURES STARTING FROM API 23
+        boolean canReplay = !canvas.isHardwareAccelerated() || Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+
+        if (canReplay && !mRecorded && mStable && width > 0 && height > 0) {
+            renderer.drawStaticLayer(mPicture.beginRecording(width, height));
+            mPicture.endRecording();
+            mRecorded = true;
+        }
+
+        if (canReplay && mRecorded) {
+            canvas.drawPicture(mPicture);
+        } else {
+            renderer.drawStaticLayer(canvas);
+            mStable = true;
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 Rami Jemli
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ramijemli.percentagechartview.renderer;
+
+import android.content.res.AssetManager;
+import android.graphics.Typeface;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide cache of typefaces decoded from asset fonts and of their style variants, shared by
+ * every chart so that a font file is decoded once however many charts use it. Safe to use from any thread.
+ */
+public final class TypefaceCache {
+
+    private static final int STYLE_COUNT = 4;
+
+    private static final Object sLock = new Object();
+
+    private static final Map<String, Typeface> sAssets = new HashMap<>();
+
+    // WEAK SO THAT TYPEFACES HANDED BY THE APP ARE NOT KEPT ALIVE BY THEIR CACHED VARIANTS
+    private static final Map<Typeface, Typeface[]> sVariants = new WeakHashMap<>();
+
+    private static int sHitCount;
+    private static int sMissCount;
+
+    private TypefaceCache() {
+    }
+
+    @NonNull
+    static Typeface fromAsset(@NonNull AssetManager assets, @NonNull String path) {
+        synchronized (sLock) {
+            Typeface typeface = sAssets.get(path);
+            if (typeface != null) {
+                sHitCount++;
+                return typeface;
+            }
+            sMissCount++;
+            typeface = Typeface.createFromAsset(assets, path);
+            sAssets.put(path, typeface);
+            return typeface;
+        }
+    }
+
+    @NonNull
+    static Typeface withStyle(@Nullable Typeface typeface, int style) {
+        // THE PLATFORM ALREADY KEEPS ITS DEFAULT FAMILY IN EVERY STYLE
+        if (typeface == null) return Typeface.defaultFromStyle(style);
+        if (style < 0 || style >= STYLE_COUNT) return Typeface.create(typeface, style);
+
+        synchronized (sLock) {
+            Typeface[] variants = sVariants.get(typeface);
+            if (variants == null) {
+                variants = new Typeface[STYLE_COUNT];
+                sVariants.put(typeface, variants);
+            }
+
+            Typeface variant = variants[style];
+            if (variant != null) {
+                sHitCount++;
+                return variant;
+            }
+            sMissCount++;
+            variant = Typeface.create(typeface, style);
+            variants[style] = variant;
+            return variant;
+        }
+    }
+
+    public static int hitCount() {
+        synchronized (sLock) {
+            return sHitCount;
+        }
+    }
+
+    public static int missCount() {
+        synchronized (sLock) {
+            return sMissCount;
+        }
+    }
+
+    public static int size() {
+        synchronized (sLock) {
+            return sAssets.size() + sVariants.size();
+        }
+    }
+
+    public static void clear() {
+        synchronized (sLock) {
+            sAssets.clear();
+            sVariants.clear();
+        }
+    }
+
+}